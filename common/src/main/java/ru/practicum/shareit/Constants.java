@@ -4,6 +4,7 @@ import java.time.format.DateTimeFormatter;
 
 public class Constants {
     public static final String PAGE_SIZE_STRING = "20";
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
     public static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter
             .ofPattern("yyyy-MM-dd'T'HH:mm:ss");
 }
@@ -0,0 +1,37 @@
+package ru.practicum.shareit.config;
+
+import lombok.experimental.UtilityClass;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// проект собирается под Java 11, поэтому виртуальные потоки (Java 21+) подключаются через reflection
+@UtilityClass
+public class VirtualThreads {
+    private static final Method NEW_EXECUTOR = findExecutorFactory();
+
+    public static boolean isAvailable() {
+        return NEW_EXECUTOR != null;
+    }
+
+    public static ExecutorService newExecutor() {
+        if (NEW_EXECUTOR == null) {
+            throw new IllegalStateException("Виртуальные потоки не поддерживаются JVM " + Runtime.version()
+                    + ", нужна Java 21 или новее");
+        }
+        try {
+            return (ExecutorService) NEW_EXECUTOR.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Не удалось создать пул виртуальных потоков", e);
+        }
+    }
+
+    private static Method findExecutorFactory() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package ru.practicum.shareit.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.experimental.UtilityClass;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.Constants;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// ответы сервера, которые одинаково собирают его контроллеры и встроенный режим
+@UtilityClass
+public class Responses {
+    private static final int NDJSON_BATCH_SIZE = 100;
+
+    public static <T> ResponseEntity<T> page(T content, @Nullable String nextCursor) {
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.ok();
+        if (nextCursor != null) {
+            responseBuilder.header(Constants.NEXT_CURSOR_HEADER, nextCursor);
+        }
+        return responseBuilder.body(content);
+    }
+
+    // при совпадении ETag объект не загружается, а клиент получает 304 без тела
+    public static <T> ResponseEntity<T> conditional(WebRequest webRequest, @Nullable String eTag, Supplier<T> body) {
+        if (eTag == null) {
+            return ResponseEntity.ok(body.get());
+        }
+        if (webRequest.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+        return ResponseEntity.ok().eTag(eTag).body(body.get());
+    }
+
+    // ранжированный список id строится один раз, а объекты читаются пачками, каждая своей короткой транзакцией
+    public static void writeNdjson(OutputStream outputStream, ObjectMapper objectMapper, List<Long> ids,
+                                   Function<List<Long>, ? extends List<?>> loader) throws IOException {
+        for (int from = 0; from < ids.size(); from += NDJSON_BATCH_SIZE) {
+            List<Long> batch = ids.subList(from, Math.min(from + NDJSON_BATCH_SIZE, ids.size()));
+            for (Object value : loader.apply(batch)) {
+                outputStream.write(objectMapper.writeValueAsBytes(value));
+                outputStream.write('\n');
+            }
+            outputStream.flush();
+        }
+    }
+}
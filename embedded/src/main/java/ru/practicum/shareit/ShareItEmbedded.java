@@ -0,0 +1,36 @@
+package ru.practicum.shareit;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfigurationExcludeFilter;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.context.TypeExcludeFilter;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import ru.practicum.shareit.booking.RemoteBookingClient;
+import ru.practicum.shareit.config.WireFormatConfig;
+import ru.practicum.shareit.exception.ErrorHandler;
+import ru.practicum.shareit.item.RemoteItemClient;
+import ru.practicum.shareit.request.RemoteItemRequestClient;
+import ru.practicum.shareit.user.RemoteUserClient;
+
+// шлюз и сервер в одном процессе: запросы принимают контроллеры шлюза со своими проверками,
+// а клиенты шлюза вызывают сервисы сервера напрямую. В контекст не попадают главные классы обоих модулей,
+// контроллеры и ErrorHandler сервера, HTTP-клиенты шлюза и формат Smile для обмена между ними
+@SpringBootConfiguration
+@EnableAutoConfiguration
+@ComponentScan(excludeFilters = {
+        @ComponentScan.Filter(type = FilterType.CUSTOM, classes = TypeExcludeFilter.class),
+        @ComponentScan.Filter(type = FilterType.CUSTOM, classes = AutoConfigurationExcludeFilter.class),
+        @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = {
+                ShareItGateway.class, ShareItServer.class, ErrorHandler.class, WireFormatConfig.class,
+                RemoteBookingClient.class, RemoteItemClient.class, RemoteItemRequestClient.class, RemoteUserClient.class}),
+        @ComponentScan.Filter(type = FilterType.REGEX, pattern = {
+                "ru\\.practicum\\.shareit\\.client\\..*", "ru\\.practicum\\.shareit\\.\\w+\\.controller\\..*"})
+})
+public class ShareItEmbedded {
+	public static void main(String[] args) {
+		SpringApplication.run(ShareItEmbedded.class, args);
+	}
+
+}
@@ -0,0 +1,60 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPage;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.embedded.InProcessServer;
+import ru.practicum.shareit.web.Responses;
+
+@Service
+@RequiredArgsConstructor
+public class EmbeddedBookingClient implements BookingClient {
+    private final BookingService bookingService;
+    private final InProcessServer server;
+
+    @Override
+    public ResponseEntity<Object> create(long userId, BookItemRequestDto bookingNewDto) {
+        BookingDto bookingDto = new BookingDto(null, bookingNewDto.getStart(), bookingNewDto.getEnd(),
+                bookingNewDto.getItemId());
+        return server.call(() -> bookingService.createBooking(userId, bookingDto));
+    }
+
+    @Override
+    public ResponseEntity<Object> approve(long userId, long bookingId, boolean approved) {
+        return server.call(() -> bookingService.updateBookingApproveStatus(userId, bookingId, approved));
+    }
+
+    @Override
+    public ResponseEntity<Object> getBooking(long userId, long bookingId) {
+        return server.conditionalGet(() -> bookingService.getBookingETag(userId, bookingId),
+                () -> bookingService.findBookingById(userId, bookingId));
+    }
+
+    @Override
+    public ResponseEntity<Object> getAllBookings(long userId, String state, int from, int size) {
+        return server.call(() -> bookingService.findAllBookingByUserAndState(userId, state, from, size));
+    }
+
+    @Override
+    public ResponseEntity<Object> getAllBookingsForOwner(long userId, String state, int from, int size) {
+        return server.call(() -> bookingService.findAllBookingByOwnerAndState(userId, state, from, size));
+    }
+
+    @Override
+    public ResponseEntity<Object> getBookingPage(long userId, String state, String cursor, int size) {
+        return server.respond(() -> pageToResponse(bookingService.findBookingPageByUserAndState(userId, state, cursor, size)));
+    }
+
+    @Override
+    public ResponseEntity<Object> getBookingPageForOwner(long userId, String state, String cursor, int size) {
+        return server.respond(() -> pageToResponse(bookingService.findBookingPageByOwnerAndState(userId, state, cursor, size)));
+    }
+
+    private static ResponseEntity<Object> pageToResponse(BookingPage page) {
+        return Responses.page(page.getBookings(), page.getNextCursor());
+    }
+}
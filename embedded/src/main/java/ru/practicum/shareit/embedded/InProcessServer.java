@@ -0,0 +1,61 @@
+package ru.practicum.shareit.embedded;
+
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.annotation.ExceptionHandlerMethodResolver;
+import ru.practicum.shareit.exception.ErrorHandler;
+import ru.practicum.shareit.web.Responses;
+
+import java.lang.reflect.Method;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
+
+// вызов сервиса сервера в том же процессе с тем же ответом, что отдал бы контроллер сервера.
+// ErrorHandler сервера не регистрируется как @RestControllerAdvice - он перехватывал бы и ошибки проверок шлюза, -
+// поэтому исключения сервисов разбираются здесь его же методами
+@Component
+public class InProcessServer {
+    private final ErrorHandler errorHandler = new ErrorHandler();
+    private final ExceptionHandlerMethodResolver errorHandlerMethods = new ExceptionHandlerMethodResolver(ErrorHandler.class);
+
+    public ResponseEntity<Object> call(Callable<?> call) {
+        return respond(() -> ResponseEntity.ok(call.call()));
+    }
+
+    // тот же условный GET, что в контроллерах сервера: при совпадении ETag сервис не загружает объект
+    public ResponseEntity<Object> conditionalGet(Callable<String> eTag, Supplier<Object> call) {
+        return respond(() -> Responses.conditional(currentRequest(), eTag.call(), call));
+    }
+
+    public ResponseEntity<Object> respond(Callable<ResponseEntity<Object>> call) {
+        try {
+            return call.call();
+        } catch (Exception e) {
+            return handle(e);
+        }
+    }
+
+    private ResponseEntity<Object> handle(Exception e) {
+        // у ErrorHandler сервера есть обработчик Throwable, поэтому метод находится всегда
+        Method method = Objects.requireNonNull(errorHandlerMethods.resolveMethod(e));
+        Object body = ReflectionUtils.invokeMethod(method, errorHandler, e);
+        return ResponseEntity.status(statusOf(method)).body(body);
+    }
+
+    private static HttpStatus statusOf(Method method) {
+        ResponseStatus status = AnnotatedElementUtils.findMergedAnnotation(method, ResponseStatus.class);
+        return status != null ? status.code() : HttpStatus.INTERNAL_SERVER_ERROR;
+    }
+
+    private static ServletWebRequest currentRequest() {
+        return new ServletWebRequest(((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes()).getRequest());
+    }
+}
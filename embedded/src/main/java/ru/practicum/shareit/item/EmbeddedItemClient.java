@@ -0,0 +1,81 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.embedded.InProcessServer;
+import ru.practicum.shareit.item.dto.CommentInDto;
+import ru.practicum.shareit.item.dto.CommentRequestDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemRequestDto;
+import ru.practicum.shareit.item.dto.ItemSearchPage;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.web.Responses;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+@Service
+@RequiredArgsConstructor
+public class EmbeddedItemClient implements ItemClient {
+    private final ItemService itemService;
+    private final InProcessServer server;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public ResponseEntity<Object> create(long userId, ItemRequestDto itemDto) {
+        return server.call(() -> itemService.createItem(userId, toItemDto(itemDto)));
+    }
+
+    @Override
+    public ResponseEntity<Object> update(long userId, long id, ItemRequestDto itemDto) {
+        return server.call(() -> itemService.updateItem(userId, id, toItemDto(itemDto)));
+    }
+
+    @Override
+    public ResponseEntity<Object> findById(Long itemId, Long userId) {
+        // порядок аргументов тот же, что в ItemController сервера
+        return server.conditionalGet(() -> itemService.getItemETag(itemId, userId),
+                () -> itemService.findItemBookingById(itemId, userId));
+    }
+
+    @Override
+    public ResponseEntity<Object> findAllByUserId(Long userId) {
+        return server.call(() -> itemService.findAllByUserId(userId));
+    }
+
+    @Override
+    public ResponseEntity<Object> search(String text, int from, int size) {
+        return server.call(() -> itemService.findItemsByQueryText(text, from, size));
+    }
+
+    @Override
+    public ResponseEntity<Object> searchPage(String text, String cursor, int size) {
+        return server.respond(() -> {
+            ItemSearchPage page = itemService.findItemPageByQueryText(text, cursor, size);
+            return Responses.page(page.getItems(), page.getNextCursor());
+        });
+    }
+
+    @Override
+    public void streamSearch(String text, OutputStream outputStream) {
+        try {
+            Responses.writeNdjson(outputStream, objectMapper, itemService.findItemIdsByQueryText(text),
+                    itemService::findItemsByIds);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public ResponseEntity<Object> addComment(long userId, long itemId, CommentRequestDto commentNewDto) {
+        return server.call(() -> itemService.addCommentToItem(userId, itemId, new CommentInDto(commentNewDto.getText())));
+    }
+
+    private static ItemDto toItemDto(ItemRequestDto itemDto) {
+        return new ItemDto(itemDto.getId(), itemDto.getName(), itemDto.getDescription(), itemDto.getAvailable(),
+                itemDto.getRequestId());
+    }
+}
@@ -0,0 +1,38 @@
+package ru.practicum.shareit.request;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.embedded.InProcessServer;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.RequestInDto;
+import ru.practicum.shareit.request.service.RequestService;
+
+@Service
+@RequiredArgsConstructor
+public class EmbeddedItemRequestClient implements ItemRequestClient {
+    private final RequestService requestService;
+    private final InProcessServer server;
+
+    @Override
+    public ResponseEntity<Object> saveItemRequest(long userId, ItemRequestDto requestDto) {
+        RequestInDto requestInDto = new RequestInDto(requestDto.getDescription());
+        return server.call(() -> requestService.createItemRequest(userId, requestInDto));
+    }
+
+    @Override
+    public ResponseEntity<Object> findAllByRequestor(long userId, int from, int size) {
+        return server.call(() -> requestService.findAllRequestByUserId(userId, from, size));
+    }
+
+    @Override
+    public ResponseEntity<Object> findItemRequests(Long userId, int from, int size) {
+        return server.call(() -> requestService.getPageableRequestByUserId(userId, from, size));
+    }
+
+    @Override
+    public ResponseEntity<Object> getItemRequest(long userId, long id) {
+        return server.conditionalGet(() -> requestService.getRequestETag(userId, id),
+                () -> requestService.getRequestById(userId, id));
+    }
+}
@@ -0,0 +1,49 @@
+package ru.practicum.shareit.user;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.embedded.InProcessServer;
+import ru.practicum.shareit.user.dto.CreateUserDto;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+@Service
+@RequiredArgsConstructor
+public class EmbeddedUserClient implements UserClient {
+    private final UserService userService;
+    private final InProcessServer server;
+
+    @Override
+    public ResponseEntity<Object> registerUser(CreateUserDto dto) {
+        return server.call(() -> userService.createUser(toUserDto(dto)));
+    }
+
+    @Override
+    public ResponseEntity<Object> updateUser(long userId, CreateUserDto dto) {
+        return server.call(() -> userService.updateUser(userId, toUserDto(dto)));
+    }
+
+    @Override
+    public ResponseEntity<Object> getUser(long userId) {
+        return server.call(() -> userService.findUserById(userId));
+    }
+
+    @Override
+    public ResponseEntity<Object> findAll() {
+        return server.call(userService::findAll);
+    }
+
+    @Override
+    public void deleteUser(long userId) {
+        // как и в HTTP-клиенте, ответ на удаление клиенту шлюза не передается
+        server.call(() -> {
+            userService.deleteUserById(userId);
+            return null;
+        });
+    }
+
+    private static UserDto toUserDto(CreateUserDto dto) {
+        return new UserDto(null, dto.getName(), dto.getEmail());
+    }
+}
@@ -0,0 +1,201 @@
+package ru.practicum.shareit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+// запуск: mvn -B package -DskipTests && mvn test -pl embedded -am -Dtest=EmbeddedLatencyBenchmarkTest \
+//         -Dsurefire.failIfNoSpecifiedTests=false -Dbenchmark=true
+// два процесса запускаются из исполняемых jar шлюза и сервера, собранных package
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class EmbeddedLatencyBenchmarkTest {
+    private static final int BOOKINGS = 20;
+    private static final int WARMUP_REQUESTS = 2_000;
+    private static final int REQUESTS = 5_000;
+    private static final long STARTUP_TIMEOUT_MILLIS = 300_000;
+    private static final List<String> QUIET_LOGGING = List.of(
+            "--spring.jpa.properties.hibernate.show_sql=false",
+            "--logging.level.org.springframework.orm.jpa=WARN",
+            "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN",
+            "--logging.level.org.springframework.transaction=WARN",
+            "--logging.level.org.springframework.transaction.interceptor=WARN",
+            "--logging.level.org.springframework.web.client.RestTemplate=WARN",
+            "--logging.level.ru.practicum.shareit=WARN");
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void compareLatencyTest() throws Exception {
+        Optional<Path> serverJar = findExecutableJar("server");
+        Optional<Path> gatewayJar = findExecutableJar("gateway");
+        Assumptions.assumeTrue(serverJar.isPresent() && gatewayJar.isPresent(),
+                "Нет исполняемых jar шлюза и сервера, сначала mvn package -DskipTests");
+
+        List<String> embedded = measureEmbedded();
+        List<String> twoProcesses = measureTwoProcesses(serverJar.get(), gatewayJar.get());
+
+        for (int i = 0; i < embedded.size(); i++) {
+            System.out.println("Одна JVM:       " + embedded.get(i));
+            System.out.println("Два процесса:   " + twoProcesses.get(i));
+        }
+    }
+
+    private List<String> measureEmbedded() throws Exception {
+        List<String> args = new ArrayList<>(QUIET_LOGGING);
+        args.add("--server.port=0");
+        args.add("--shareit.rate-limit.enabled=false");
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ShareItEmbedded.class)
+                .run(args.toArray(new String[0]))) {
+            return measure("http://localhost:" + context.getEnvironment().getProperty("local.server.port"));
+        }
+    }
+
+    private List<String> measureTwoProcesses(Path serverJar, Path gatewayJar) throws Exception {
+        int serverPort = freePort();
+        int gatewayPort = freePort();
+        Process server = start(serverJar, "server", "--server.port=" + serverPort);
+        Process gateway = null;
+        try {
+            gateway = start(gatewayJar, "gateway", "--server.port=" + gatewayPort,
+                    "--shareit-server.url=http://localhost:" + serverPort, "--shareit.rate-limit.enabled=false");
+            awaitHealthy("http://localhost:" + serverPort);
+            awaitHealthy("http://localhost:" + gatewayPort);
+            return measure("http://localhost:" + gatewayPort);
+        } finally {
+            if (gateway != null) {
+                gateway.destroy();
+                gateway.waitFor();
+            }
+            server.destroy();
+            server.waitFor();
+        }
+    }
+
+    private List<String> measure(String baseUrl) throws Exception {
+        long ownerId = createUser(baseUrl, "owner");
+        long bookerId = createUser(baseUrl, "booker");
+        long itemId = idOf(send(baseUrl, "/items", ownerId,
+                "{\"name\":\"дрель\",\"description\":\"мощная дрель\",\"available\":true}"));
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        for (int i = 0; i < BOOKINGS; i++) {
+            send(baseUrl, "/bookings", bookerId, String.format("{\"itemId\":%d,\"start\":\"%s\",\"end\":\"%s\"}",
+                    itemId, start.plusDays(i * 2L), start.plusDays(i * 2L + 1)));
+        }
+
+        return List.of(
+                measure(baseUrl, "/users/{userId}", "/users/" + bookerId, bookerId),
+                measure(baseUrl, "/bookings, " + BOOKINGS + " бронирований", "/bookings?size=" + BOOKINGS, bookerId));
+    }
+
+    private String measure(String baseUrl, String name, String path, long userId) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("X-Sharer-User-Id", String.valueOf(userId))
+                .GET()
+                .build();
+        for (int i = 0; i < WARMUP_REQUESTS; i++) {
+            call(request);
+        }
+        long[] nanos = new long[REQUESTS];
+        for (int i = 0; i < REQUESTS; i++) {
+            long startNanos = System.nanoTime();
+            call(request);
+            nanos[i] = System.nanoTime() - startNanos;
+        }
+        Arrays.sort(nanos);
+        double mean = Arrays.stream(nanos).average().orElse(0);
+        return String.format("GET %s: среднее %.0f мкс, p50 %d мкс, p99 %d мкс", name, mean / 1000,
+                nanos[REQUESTS / 2] / 1000, nanos[REQUESTS * 99 / 100] / 1000);
+    }
+
+    private void call(HttpRequest request) throws Exception {
+        HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        Assertions.assertThat(response.statusCode()).isEqualTo(200);
+    }
+
+    private long createUser(String baseUrl, String name) throws Exception {
+        return idOf(send(baseUrl, "/users", null,
+                String.format("{\"name\":\"%s\",\"email\":\"%s@example.com\"}", name, name)));
+    }
+
+    private String send(String baseUrl, String path, Long userId, String json) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+        if (userId != null) {
+            request.header("X-Sharer-User-Id", String.valueOf(userId));
+        }
+        HttpResponse<String> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        Assertions.assertThat(response.statusCode()).as(response.body()).isEqualTo(200);
+        return response.body();
+    }
+
+    private long idOf(String json) throws IOException {
+        return objectMapper.readTree(json).get("id").asLong();
+    }
+
+    private static Process start(Path jar, String name, String... args) throws IOException {
+        List<String> command = new ArrayList<>(List.of(
+                Paths.get(System.getProperty("java.home"), "bin", "java").toString(), "-jar", jar.toString(),
+                "--spring.profiles.active=test"));
+        command.addAll(QUIET_LOGGING);
+        command.addAll(List.of(args));
+        return new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(new File("target/benchmark-" + name + ".log"))
+                .start();
+    }
+
+    private void awaitHealthy(String baseUrl) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/health")).GET().build();
+        long deadline = System.currentTimeMillis() + STARTUP_TIMEOUT_MILLIS;
+        while (System.currentTimeMillis() < deadline) {
+            try {
+                if (httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // процесс еще запускается
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException("Процесс не запустился: " + baseUrl);
+    }
+
+    private static Optional<Path> findExecutableJar(String module) throws IOException {
+        Path target = Paths.get("..", module, "target");
+        if (!Files.isDirectory(target)) {
+            return Optional.empty();
+        }
+        try (Stream<Path> files = Files.list(target)) {
+            return files.filter(file -> file.getFileName().toString().endsWith("-exec.jar")).findFirst();
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package ru.practicum.shareit;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Map;
+
+@SpringBootTest(classes = ShareItEmbedded.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ShareItEmbeddedTest {
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Test
+    void gatewayValidationStaysInFrontTest() {
+        ResponseEntity<String> response = rest.postForEntity("/users",
+                Map.of("name", "user", "email", "not-an-email"), String.class);
+
+        Assertions.assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        // список ошибок полей - формат ErrorHandler шлюза
+        Assertions.assertThat(response.getBody()).startsWith("[").contains("email");
+    }
+
+    @Test
+    void serverErrorsKeepServerResponseTest() {
+        ResponseEntity<String> response = rest.getForEntity("/users/{userId}", String.class, 100_000);
+
+        Assertions.assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        Assertions.assertThat(response.getBody()).isEqualTo("{\"error\":\"Объект не найден\"}");
+    }
+
+    @Test
+    void itemConditionalGetTest() {
+        long ownerId = createUser("owner", "owner@example.com");
+        long userId = createUser("user", "user@example.com");
+        ResponseEntity<Map> item = rest.exchange("/items", HttpMethod.POST,
+                new HttpEntity<>(Map.of("name", "дрель", "description", "мощная дрель", "available", true),
+                        userHeaders(ownerId)), Map.class);
+        Assertions.assertThat(item.getStatusCode()).isEqualTo(HttpStatus.OK);
+        String itemUrl = "/items/" + item.getBody().get("id");
+
+        ResponseEntity<String> first = rest.exchange(itemUrl, HttpMethod.GET, new HttpEntity<>(userHeaders(userId)),
+                String.class);
+        Assertions.assertThat(first.getStatusCode()).isEqualTo(HttpStatus.OK);
+        Assertions.assertThat(first.getBody()).contains("мощная дрель");
+        String eTag = first.getHeaders().getETag();
+        Assertions.assertThat(eTag).isNotNull();
+
+        HttpHeaders conditional = userHeaders(userId);
+        conditional.setIfNoneMatch(eTag);
+        ResponseEntity<String> second = rest.exchange(itemUrl, HttpMethod.GET, new HttpEntity<>(conditional),
+                String.class);
+        Assertions.assertThat(second.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        Assertions.assertThat(second.getBody()).isNull();
+    }
+
+    private long createUser(String name, String email) {
+        ResponseEntity<Map> response = rest.postForEntity("/users", Map.of("name", name, "email", email), Map.class);
+        Assertions.assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        return ((Number) response.getBody().get("id")).longValue();
+    }
+
+    private static HttpHeaders userHeaders(long userId) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Sharer-User-Id", String.valueOf(userId));
+        return headers;
+    }
+}
@@ -1,62 +1,20 @@
 package ru.practicum.shareit.booking;
 
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
-import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
-import ru.practicum.shareit.client.BaseClient;
-
-import java.util.Map;
-
-@Service
-public class BookingClient extends BaseClient {
-    private static final String API_PREFIX = "/bookings";
-
-    @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(builder
-                .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                .build());
-    }
-
-    public ResponseEntity<Object> create(long userId, BookItemRequestDto bookingNewDto) {
-        return post("", userId, bookingNewDto);
-    }
-
-    public ResponseEntity<Object> approve(long userId, long bookingId, boolean approved) {
-        Map<String, Object> parameters = Map.of(
-                "bookingId", bookingId,
-                "approved", approved
-        );
-        return patch("/{bookingId}?approved={approved}", userId, parameters, null);
-    }
-
-    public ResponseEntity<Object> getBooking(long userId, long bookingId) {
-        return get("/" + bookingId, userId);
-    }
-
-    public ResponseEntity<Object> getAllBookings(long userId, String state, int from, int size) {
-        Map<String, Object> parameters = Map.of(
-                "state", state,
-                "from", from,
-                "size", size
-        );
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
-    }
-
-    public ResponseEntity<Object> getAllBookingsForOwner(long userId, String state, int from, int size) {
-        Map<String, Object> parameters = Map.of(
-                "state", state,
-                "from", from,
-                "size", size
-        );
-        return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
-    }
 
-}
+public interface BookingClient {
+    ResponseEntity<Object> create(long userId, BookItemRequestDto bookingNewDto);
+
+    ResponseEntity<Object> approve(long userId, long bookingId, boolean approved);
+
+    ResponseEntity<Object> getBooking(long userId, long bookingId);
+
+    ResponseEntity<Object> getAllBookings(long userId, String state, int from, int size);
 
+    ResponseEntity<Object> getAllBookingsForOwner(long userId, String state, int from, int size);
+
+    ResponseEntity<Object> getBookingPage(long userId, String state, String cursor, int size);
+
+    ResponseEntity<Object> getBookingPageForOwner(long userId, String state, String cursor, int size);
+}
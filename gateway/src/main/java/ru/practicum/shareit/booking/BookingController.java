@@ -2,23 +2,24 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.Constants;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
-import ru.practicum.shareit.exeption.IllegalArgumentException;
 
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
-import java.time.LocalDateTime;
-import java.util.List;
-import java.util.Objects;
+
+import static ru.practicum.shareit.booking.BookingValidator.checkCorrectDateTime;
+import static ru.practicum.shareit.booking.BookingValidator.checkCorrectState;
 
 @Controller
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping(path = "/bookings")
 @RequiredArgsConstructor
 @Slf4j
@@ -30,8 +31,13 @@ public class BookingController {
     public ResponseEntity<Object> getBookings(@RequestHeader("X-Sharer-User-Id") long userId,
                                               @RequestParam(name = "state", defaultValue = "ALL") String stateParam,
                                               @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                              @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+                                              @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                              @RequestParam(name = "cursor", required = false) String cursor) {
         checkCorrectState(stateParam);
+        if (cursor != null) {
+            log.info("Get booking with state {}, userId={}, cursor={}, size={}", stateParam, userId, cursor, size);
+            return bookingClient.getBookingPage(userId, stateParam, cursor, size);
+        }
         log.info("Get booking with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
         return bookingClient.getAllBookings(userId, stateParam, from, size);
     }
@@ -66,36 +72,14 @@ public class BookingController {
                                                                 @PositiveOrZero
                                                                 @RequestParam(name = "from", defaultValue = "0") Integer from,
                                                                 @Positive
-                                                                @RequestParam(name = "size", defaultValue = Constants.PAGE_SIZE_STRING) Integer size) {
+                                                                @RequestParam(name = "size", defaultValue = Constants.PAGE_SIZE_STRING) Integer size,
+                                                                @RequestParam(name = "cursor", required = false) String cursor) {
         checkCorrectState(stateParam);
+        if (cursor != null) {
+            log.info("GET /bookings / owner - получение бронирований владельца по курсору");
+            return bookingClient.getBookingPageForOwner(ownerId, stateParam, cursor, size);
+        }
         log.info("GET /bookings / owner - получение бронирований пользователя по параметру");
         return bookingClient.getAllBookingsForOwner(ownerId, stateParam, from, size);
     }
-
-    private void checkCorrectDateTime(BookItemRequestDto bookingInDto) {
-        if (bookingInDto.getStart() == null || bookingInDto.getEnd() == null) {
-            throw new IllegalArgumentException("Укажите корректные даты бронирования вещи");
-        }
-        if (bookingInDto.getStart().equals(bookingInDto.getEnd())) {
-            throw new IllegalArgumentException("Дата начала бронирования и окончания не должна совпадать");
-        }
-        if (bookingInDto.getStart().isBefore(LocalDateTime.now())) {
-            throw new IllegalArgumentException("Дата начала бронирования должна быть в будущем");
-        }
-        if (bookingInDto.getEnd().isBefore(LocalDateTime.now())) {
-            throw new IllegalArgumentException("Дата окончания бронирования должна быть в будущем");
-        }
-        if (bookingInDto.getEnd().isBefore(bookingInDto.getStart())) {
-            throw new IllegalArgumentException("Некорректные даты бронирования");
-        }
-    }
-
-    private void checkCorrectState(String state) {
-        if (!Objects.equals(state, "ALL")) {
-            List<String> stateList = List.of("CURRENT", "PAST", "FUTURE", "REJECTED", "WAITING");
-            if (!stateList.contains(state)) {
-                throw new IllegalArgumentException("Unknown state: UNSUPPORTED_STATUS");
-            }
-        }
-    }
 }
@@ -0,0 +1,39 @@
+package ru.practicum.shareit.booking;
+
+import lombok.experimental.UtilityClass;
+import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.exeption.IllegalArgumentException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+
+@UtilityClass
+public class BookingValidator {
+    public static void checkCorrectDateTime(BookItemRequestDto bookingInDto) {
+        if (bookingInDto.getStart() == null || bookingInDto.getEnd() == null) {
+            throw new IllegalArgumentException("Укажите корректные даты бронирования вещи");
+        }
+        if (bookingInDto.getStart().equals(bookingInDto.getEnd())) {
+            throw new IllegalArgumentException("Дата начала бронирования и окончания не должна совпадать");
+        }
+        if (bookingInDto.getStart().isBefore(LocalDateTime.now())) {
+            throw new IllegalArgumentException("Дата начала бронирования должна быть в будущем");
+        }
+        if (bookingInDto.getEnd().isBefore(LocalDateTime.now())) {
+            throw new IllegalArgumentException("Дата окончания бронирования должна быть в будущем");
+        }
+        if (bookingInDto.getEnd().isBefore(bookingInDto.getStart())) {
+            throw new IllegalArgumentException("Некорректные даты бронирования");
+        }
+    }
+
+    public static void checkCorrectState(String state) {
+        if (!Objects.equals(state, "ALL")) {
+            List<String> stateList = List.of("CURRENT", "PAST", "FUTURE", "REJECTED", "WAITING");
+            if (!stateList.contains(state)) {
+                throw new IllegalArgumentException("Unknown state: UNSUPPORTED_STATUS");
+            }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.Constants;
+import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+
+import static ru.practicum.shareit.booking.BookingValidator.checkCorrectDateTime;
+import static ru.practicum.shareit.booking.BookingValidator.checkCorrectState;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping(path = "/bookings")
+@RequiredArgsConstructor
+@Slf4j
+@Validated
+public class ReactiveBookingController {
+    private final ReactiveBookingClient bookingClient;
+
+    @GetMapping
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getBookings(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                              @RequestParam(name = "state", defaultValue = "ALL") String stateParam,
+                                                              @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                              @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                              @RequestParam(name = "cursor", required = false) String cursor) {
+        checkCorrectState(stateParam);
+        if (cursor != null) {
+            log.info("Get booking with state {}, userId={}, cursor={}, size={}", stateParam, userId, cursor, size);
+            return bookingClient.getBookingPage(userId, stateParam, cursor, size);
+        }
+        log.info("Get booking with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
+        return bookingClient.getAllBookings(userId, stateParam, from, size);
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<Flux<DataBuffer>>> bookItem(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                           @RequestBody @Valid Mono<BookItemRequestDto> requestDto) {
+        return requestDto.flatMap(dto -> {
+            checkCorrectDateTime(dto);
+            log.info("Creating booking {}, userId={}", dto, userId);
+            return bookingClient.create(userId, dto);
+        });
+    }
+
+    @GetMapping("/{bookingId}")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getBooking(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                             @PathVariable Long bookingId) {
+        log.info("Get booking {}, userId={}", bookingId, userId);
+        return bookingClient.getBooking(userId, bookingId);
+    }
+
+    @PatchMapping("{bookingId}")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> updateBookingApproveStatus(@RequestHeader(name = "X-Sharer-User-Id") Long userId,
+                                                                             @NotNull @PathVariable Long bookingId,
+                                                                             @RequestParam @NotNull Boolean approved) {
+        log.info("PATCH /bookings - обновление бронирования вещи");
+        return bookingClient.approve(userId, bookingId, approved);
+    }
+
+    @GetMapping("/owner")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> findAllBookingByOwnerAndState(@RequestHeader(name = "X-Sharer-User-Id") Long ownerId,
+                                                                                @RequestParam(name = "state", required = false, defaultValue = "ALL")
+                                                                                String stateParam,
+                                                                                @PositiveOrZero
+                                                                                @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                                                @Positive
+                                                                                @RequestParam(name = "size", defaultValue = Constants.PAGE_SIZE_STRING) Integer size,
+                                                                                @RequestParam(name = "cursor", required = false) String cursor) {
+        checkCorrectState(stateParam);
+        if (cursor != null) {
+            log.info("GET /bookings / owner - получение бронирований владельца по курсору");
+            return bookingClient.getBookingPageForOwner(ownerId, stateParam, cursor, size);
+        }
+        log.info("GET /bookings / owner - получение бронирований пользователя по параметру");
+        return bookingClient.getAllBookingsForOwner(ownerId, stateParam, from, size);
+    }
+}
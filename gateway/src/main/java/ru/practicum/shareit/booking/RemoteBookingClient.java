@@ -0,0 +1,89 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.DownstreamGuards;
+
+import java.util.Map;
+
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class RemoteBookingClient extends BaseClient implements BookingClient {
+    private static final String API_PREFIX = "/bookings";
+
+    @Autowired
+    public RemoteBookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                         DownstreamGuards guards) {
+        super(builder
+                .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
+                .build(), null, guards.forGroup("bookings"));
+    }
+
+    @Override
+    public ResponseEntity<Object> create(long userId, BookItemRequestDto bookingNewDto) {
+        return post("", userId, bookingNewDto);
+    }
+
+    @Override
+    public ResponseEntity<Object> approve(long userId, long bookingId, boolean approved) {
+        Map<String, Object> parameters = Map.of(
+                "bookingId", bookingId,
+                "approved", approved
+        );
+        return patch("/{bookingId}?approved={approved}", userId, parameters, null);
+    }
+
+    @Override
+    public ResponseEntity<Object> getBooking(long userId, long bookingId) {
+        return get("/" + bookingId, userId);
+    }
+
+    @Override
+    public ResponseEntity<Object> getAllBookings(long userId, String state, int from, int size) {
+        Map<String, Object> parameters = Map.of(
+                "state", state,
+                "from", from,
+                "size", size
+        );
+        return get("?state={state}&from={from}&size={size}", userId, parameters);
+    }
+
+    @Override
+    public ResponseEntity<Object> getAllBookingsForOwner(long userId, String state, int from, int size) {
+        Map<String, Object> parameters = Map.of(
+                "state", state,
+                "from", from,
+                "size", size
+        );
+        return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
+    }
+
+    @Override
+    public ResponseEntity<Object> getBookingPage(long userId, String state, String cursor, int size) {
+        Map<String, Object> parameters = Map.of(
+                "state", state,
+                "cursor", cursor,
+                "size", size
+        );
+        return get("?state={state}&cursor={cursor}&size={size}", userId, parameters);
+    }
+
+    @Override
+    public ResponseEntity<Object> getBookingPageForOwner(long userId, String state, String cursor, int size) {
+        Map<String, Object> parameters = Map.of(
+                "state", state,
+                "cursor", cursor,
+                "size", size
+        );
+        return get("/owner?state={state}&cursor={cursor}&size={size}", userId, parameters);
+    }
+
+}
+
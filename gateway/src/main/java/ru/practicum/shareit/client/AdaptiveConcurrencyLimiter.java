@@ -0,0 +1,72 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// общий для всех групп предел одновременных вызовов сервера (AIMD): пока ответы успешны и быстры,
+// предел растет примерно на единицу за каждые limit вызовов; ошибка сервера или ответ дольше
+// slowCallThreshold уменьшает его в backoffRatio раз, но не чаще одного раза за "поколение" вызовов,
+// начатых до предыдущего уменьшения, - иначе пачка одновременных ошибок обрушила бы предел до минимума
+class AdaptiveConcurrencyLimiter {
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long slowCallNanos;
+    private final Counter rejected;
+
+    private double limit;
+    private int inFlight;
+    private long lastDecreaseAt = System.nanoTime();
+
+    AdaptiveConcurrencyLimiter(ResilienceProperties.Limiter settings, MeterRegistry registry) {
+        this.minLimit = settings.getMinLimit();
+        this.maxLimit = settings.getMaxLimit();
+        this.backoffRatio = settings.getBackoffRatio();
+        this.slowCallNanos = settings.getSlowCallThreshold().toNanos();
+        this.limit = settings.getInitialLimit();
+
+        Gauge.builder("gateway.limiter.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Текущий предел одновременных вызовов сервера")
+                .register(registry);
+        Gauge.builder("gateway.limiter.inflight", this, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Вызовы сервера в работе")
+                .register(registry);
+        this.rejected = Counter.builder("gateway.limiter.rejected")
+                .register(registry);
+    }
+
+    synchronized boolean tryAcquire() {
+        if (inFlight >= (int) limit) {
+            rejected.increment();
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    synchronized void onSample(long startNanos, boolean failed) {
+        long now = System.nanoTime();
+        if (failed || now - startNanos > slowCallNanos) {
+            if (startNanos - lastDecreaseAt >= 0) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+                lastDecreaseAt = now;
+            }
+        } else if (inFlight * 2 >= limit) {
+            // предел растет, только если он действительно используется
+            limit = Math.min(maxLimit, limit + 1 / limit);
+        }
+    }
+
+    synchronized void release() {
+        inFlight--;
+    }
+
+    synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    synchronized int getInFlight() {
+        return inFlight;
+    }
+}
@@ -1,22 +1,56 @@
 package ru.practicum.shareit.client;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
+import lombok.Value;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResponseExtractor;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import ru.practicum.shareit.Constants;
 
 public class BaseClient {
+    private static final int STREAM_BUFFER_SIZE = 8192;
+    // заголовки сервера, которые имеют смысл для клиента; служебные заголовки соединения не передаются
+    static final List<String> PASSTHROUGH_HEADERS = List.of(
+            HttpHeaders.CONTENT_TYPE,
+            HttpHeaders.LOCATION,
+            HttpHeaders.CACHE_CONTROL,
+            HttpHeaders.ETAG,
+            HttpHeaders.LAST_MODIFIED,
+            HttpHeaders.RETRY_AFTER,
+            Constants.NEXT_CURSOR_HEADER);
+
     protected final RestTemplate rest;
+    private final ResponseCache responseCache;
+    private final DownstreamGuard guard;
+    private final SingleFlight<GetKey, ResponseEntity<Object>> inFlightGets = new SingleFlight<>();
 
     public BaseClient(RestTemplate rest) {
+        this(rest, null, null);
+    }
+
+    public BaseClient(RestTemplate rest, @Nullable ResponseCache responseCache, @Nullable DownstreamGuard guard) {
         this.rest = rest;
+        this.responseCache = responseCache;
+        this.guard = guard;
     }
 
     protected ResponseEntity<Object> get(String path) {
@@ -28,7 +62,23 @@ public class BaseClient {
     }
 
     protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
-        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
+        // одинаковые одновременные GET-запросы одного пользователя разделяют один вызов сервера
+        return inFlightGets.execute(new GetKey(expand(path, parameters), userId, currentIfNoneMatch()),
+                () -> makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null));
+    }
+
+    protected ResponseEntity<Object> cachedGet(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        if (responseCache == null) {
+            return get(path, userId, parameters);
+        }
+        // ответ из кэша с ETag из If-None-Match Spring MVC сам превращает в 304
+        return responseCache.get(expand(path, parameters), userId, () -> get(path, userId, parameters));
+    }
+
+    protected void evictCached(Predicate<String> pathMatcher) {
+        if (responseCache != null) {
+            responseCache.evict(pathMatcher);
+        }
     }
 
     protected <T> ResponseEntity<Object> post(String path, T body) {
@@ -79,20 +129,66 @@ public class BaseClient {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
+    protected void stream(String path, @Nullable Map<String, Object> parameters, MediaType mediaType,
+                          OutputStream outputStream) {
+        RequestCallback requestCallback = request -> request.getHeaders().setAccept(List.of(mediaType));
+        // ответ сервера передается клиенту по мере чтения, не собираясь целиком в памяти
+        Function<Runnable, Void> call = onResponse -> rest.execute(path, HttpMethod.GET, requestCallback, response -> {
+            // заголовки получены, дальше время зависит от объема выдачи и скорости клиента
+            onResponse.run();
+            InputStream inputStream = response.getBody();
+            byte[] buffer = new byte[STREAM_BUFFER_SIZE];
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                outputStream.write(buffer, 0, read);
+                outputStream.flush();
+            }
+            return null;
+        }, parameters != null ? parameters : Map.of());
+        if (guard != null) {
+            guard.executeStream(call);
+        } else {
+            call.apply(() -> { });
+        }
+    }
+
     private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
-
-        ResponseEntity<Object> shareitServerResponse;
-        try {
-            if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
+        HttpHeaders headers = defaultHeaders(userId);
+        String ifNoneMatch = currentIfNoneMatch();
+        if (method == HttpMethod.GET && ifNoneMatch != null) {
+            // сервер отвечает 304 без тела, если ресурс не изменился
+            headers.set(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        HttpEntity<T> requestEntity = new HttpEntity<>(body, headers);
+        // тело ответа читается в память целиком и отдается клиенту без разбора в дерево объектов;
+        // буфер нужен SingleFlight и кэшу, которые отдают один ответ нескольким запросам, и защите,
+        // которая по статусу решает о повторе до того, как клиенту ушел хоть один байт.
+        // Крупные выгрузки идут мимо буфера через stream
+        ResponseExtractor<ResponseEntity<Object>> responseExtractor = response ->
+                passthroughResponse(response.getRawStatusCode(), response.getHeaders(),
+                        StreamUtils.copyToByteArray(response.getBody()));
+
+        Supplier<ResponseEntity<Object>> call = () -> {
+            try {
+                return rest.execute(path, method, rest.httpEntityCallback(requestEntity), responseExtractor,
+                        parameters != null ? parameters : Map.of());
+            } catch (HttpStatusCodeException e) {
+                return passthroughResponse(e.getRawStatusCode(), e.getResponseHeaders(), e.getResponseBodyAsByteArray());
             }
-        } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+        };
+        Predicate<ResponseEntity<Object>> isFailure = response -> response.getStatusCode().is5xxServerError();
+        if (method == HttpMethod.GET && guard != null) {
+            return guard.executeIdempotent(call, isFailure);
         }
-        return prepareGatewayResponse(shareitServerResponse);
+        return guarded(call, isFailure);
+    }
+
+    private <T> T guarded(Supplier<T> call, Predicate<T> isFailure) {
+        return guard != null ? guard.execute(call, isFailure) : call.get();
+    }
+
+    private URI expand(String path, @Nullable Map<String, Object> parameters) {
+        return rest.getUriTemplateHandler().expand(path, parameters != null ? parameters : Map.of());
     }
 
     private HttpHeaders defaultHeaders(Long userId) {
@@ -105,17 +201,36 @@ public class BaseClient {
         return headers;
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
+    @Nullable
+    private static String currentIfNoneMatch() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes) {
+            return ((ServletRequestAttributes) attributes).getRequest().getHeader(HttpHeaders.IF_NONE_MATCH);
+        }
+        return null;
+    }
+
+    private static ResponseEntity<Object> passthroughResponse(int status, @Nullable HttpHeaders serverHeaders, byte[] body) {
+        HttpHeaders headers = new HttpHeaders();
+        if (serverHeaders != null) {
+            PASSTHROUGH_HEADERS.stream()
+                    .filter(serverHeaders::containsKey)
+                    .forEach(name -> headers.put(name, serverHeaders.get(name)));
         }
 
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(status).headers(headers);
 
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
+        if (body.length > 0) {
+            return responseBuilder.body(body);
         }
 
         return responseBuilder.build();
     }
+
+    @Value
+    private static class GetKey {
+        URI uri;
+        Long userId;
+        String ifNoneMatch;
+    }
 }
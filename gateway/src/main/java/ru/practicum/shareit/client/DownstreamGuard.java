@@ -0,0 +1,383 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.apache.http.NoHttpResponseException;
+import org.apache.http.conn.ConnectTimeoutException;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import ru.practicum.shareit.exeption.ServiceUnavailableException;
+
+import java.net.ConnectException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+// ограничение одновременных вызовов (bulkhead) и размыкатель для одной группы маршрутов сервера,
+// для идемпотентных запросов - еще повторы при сбоях соединения и дублирующие запросы при медленном ответе
+public class DownstreamGuard {
+    private static final long HEDGE_DELAY_REFRESH_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final String group;
+    private final Semaphore permits;
+    private final long maxWaitNanos;
+    private final CircuitBreaker circuitBreaker;
+    private final Counter bulkheadRejected;
+    private final Counter circuitRejected;
+
+    private final RetryBudget retryBudget;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final int maxRetries;
+    private final long retryBackoffNanos;
+    private final long retryMaxBackoffNanos;
+    private final Counter retries;
+    private final Counter budgetExhausted;
+
+    private final ExecutorService hedgeExecutor;
+    private final long hedgeMinDelayNanos;
+    private final Timer latency;
+    private final Counter hedges;
+    private volatile long hedgeDelayNanos;
+    private volatile long hedgeDelayUpdatedAt;
+
+    DownstreamGuard(String group, ResilienceProperties.Group settings, RetryBudget retryBudget,
+                    @Nullable AdaptiveConcurrencyLimiter limiter, MeterRegistry registry) {
+        this.group = group;
+        this.permits = new Semaphore(settings.getMaxConcurrentCalls());
+        this.maxWaitNanos = settings.getMaxWait().toNanos();
+        this.circuitBreaker = new CircuitBreaker(settings.getFailureThreshold(), settings.getOpenDuration());
+        this.retryBudget = retryBudget;
+        this.limiter = limiter;
+        this.maxRetries = settings.getMaxRetries();
+        this.retryBackoffNanos = settings.getRetryBackoff().toNanos();
+        this.retryMaxBackoffNanos = settings.getRetryMaxBackoff().toNanos();
+        this.hedgeMinDelayNanos = settings.getHedgeMinDelay().toNanos();
+        this.hedgeDelayNanos = hedgeMinDelayNanos;
+        // каждый вызов занимает слот bulkhead и не больше двух потоков, поэтому пул не переполняется
+        this.hedgeExecutor = settings.getHedgeEnabled()
+                ? new ThreadPoolExecutor(0, settings.getMaxConcurrentCalls() * 2, 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), hedgeThreadFactory(group))
+                : null;
+
+        Gauge.builder("gateway.circuit.state", circuitBreaker, breaker -> breaker.getState().ordinal())
+                .tag("group", group)
+                .description("Состояние размыкателя: 0 - замкнут, 1 - разомкнут, 2 - пробный вызов")
+                .register(registry);
+        Gauge.builder("gateway.bulkhead.available", permits, Semaphore::availablePermits)
+                .tag("group", group)
+                .description("Свободные слоты одновременных вызовов сервера")
+                .register(registry);
+        Gauge.builder("gateway.bulkhead.max", settings, ResilienceProperties.Group::getMaxConcurrentCalls)
+                .tag("group", group)
+                .register(registry);
+        this.bulkheadRejected = Counter.builder("gateway.bulkhead.rejected")
+                .tag("group", group)
+                .register(registry);
+        this.circuitRejected = Counter.builder("gateway.circuit.rejected")
+                .tag("group", group)
+                .register(registry);
+        this.retries = Counter.builder("gateway.retries")
+                .tag("group", group)
+                .register(registry);
+        this.budgetExhausted = Counter.builder("gateway.retry.budget.exhausted")
+                .tag("group", group)
+                .register(registry);
+        this.hedges = Counter.builder("gateway.hedges")
+                .tag("group", group)
+                .register(registry);
+        this.latency = Timer.builder("gateway.downstream.latency")
+                .tag("group", group)
+                .publishPercentiles(settings.getHedgePercentile())
+                .distributionStatisticExpiry(Duration.ofMinutes(1))
+                .register(registry);
+    }
+
+    // только для идемпотентных запросов: их можно повторить и продублировать без побочных эффектов
+    public <T> T executeIdempotent(Supplier<T> call, Predicate<T> isFailure) {
+        retryBudget.onRequest();
+        Supplier<T> timedCall = () -> timed(call);
+        Supplier<T> attempt = () -> withRetries(timedCall);
+        // дублирующий запрос не повторяется: повторы при сбое соединения уже делает основной
+        return execute(hedgeExecutor != null ? () -> hedged(attempt, timedCall, isFailure) : attempt, isFailure);
+    }
+
+    // isFailure определяет, считать ли полученный ответ ошибкой сервера; исключения, кроме 4xx, - всегда ошибка
+    public <T> T execute(Supplier<T> call, Predicate<T> isFailure) {
+        return withPermits(() -> callWithBreaker(call, isFailure));
+    }
+
+    // потоковый ответ: размыкатель и лимитер учитывают только время до заголовков ответа, о которых call сообщает
+    // вызовом переданного ему Runnable; дальше длительность зависит от объема выдачи и скорости клиента,
+    // а обрыв соединения клиентом - не ошибка сервера
+    public <T> T executeStream(Function<Runnable, T> call) {
+        return withPermits(() -> streamWithBreaker(call));
+    }
+
+    private <T> T withPermits(Supplier<T> call) {
+        if (!acquirePermit()) {
+            bulkheadRejected.increment();
+            throw new ServiceUnavailableException("Слишком много одновременных запросов к серверу (" + group
+                    + "), повторите запрос позже");
+        }
+        try {
+            // лимитер проверяется до размыкателя, иначе его отказ занял бы пробный вызов размыкателя
+            if (limiter != null && !limiter.tryAcquire()) {
+                throw new ServiceUnavailableException("Сервер перегружен (" + group + "), повторите запрос позже");
+            }
+            try {
+                return call.get();
+            } finally {
+                if (limiter != null) {
+                    limiter.release();
+                }
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private <T> T callWithBreaker(Supplier<T> call, Predicate<T> isFailure) {
+        acquireBreakerPermission();
+        long startNanos = System.nanoTime();
+        T result;
+        try {
+            result = call.get();
+        } catch (HttpClientErrorException e) {
+            circuitBreaker.onSuccess();
+            sample(startNanos, false);
+            throw e;
+        } catch (RuntimeException | Error e) {
+            circuitBreaker.onFailure();
+            sample(startNanos, true);
+            throw e;
+        }
+        boolean failed = isFailure.test(result);
+        if (failed) {
+            circuitBreaker.onFailure();
+        } else {
+            circuitBreaker.onSuccess();
+        }
+        sample(startNanos, failed);
+        return result;
+    }
+
+    private <T> T streamWithBreaker(Function<Runnable, T> call) {
+        acquireBreakerPermission();
+        long startNanos = System.nanoTime();
+        AtomicBoolean recorded = new AtomicBoolean();
+        Runnable onResponse = () -> {
+            if (recorded.compareAndSet(false, true)) {
+                circuitBreaker.onSuccess();
+                sample(startNanos, false);
+            }
+        };
+        T result;
+        try {
+            result = call.apply(onResponse);
+        } catch (HttpClientErrorException e) {
+            onResponse.run();
+            throw e;
+        } catch (RuntimeException | Error e) {
+            // после заголовков ответа исключение уже не учитывается
+            if (recorded.compareAndSet(false, true)) {
+                circuitBreaker.onFailure();
+                sample(startNanos, true);
+            }
+            throw e;
+        }
+        // пустой ответ мог не вызвать onResponse, а пробный вызов размыкателя должен завершиться
+        onResponse.run();
+        return result;
+    }
+
+    private void acquireBreakerPermission() {
+        if (!circuitBreaker.tryAcquirePermission()) {
+            circuitRejected.increment();
+            throw new ServiceUnavailableException("Сервер временно недоступен (" + group
+                    + "), повторите запрос позже");
+        }
+    }
+
+    private void sample(long startNanos, boolean failed) {
+        if (limiter != null) {
+            limiter.onSample(startNanos, failed);
+        }
+    }
+
+    private <T> T withRetries(Supplier<T> call) {
+        for (int attempt = 0; ; attempt++) {
+            try {
+                return call.get();
+            } catch (ResourceAccessException e) {
+                if (attempt >= maxRetries || !isTransient(e)) {
+                    throw e;
+                }
+                if (!retryBudget.tryWithdraw()) {
+                    budgetExhausted.increment();
+                    throw e;
+                }
+                retries.increment();
+                if (!sleep(backoffNanos(attempt))) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private <T> T timed(Supplier<T> call) {
+        long startNanos = System.nanoTime();
+        T result = call.get();
+        latency.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        return result;
+    }
+
+    // сервер не принял соединение или закрыл простаивавшее соединение - запрос до него не дошел;
+    // таймаут чтения не повторяется, он означает, что сервер уже занят этим запросом
+    private static boolean isTransient(ResourceAccessException e) {
+        Throwable cause = e.getCause();
+        return cause instanceof ConnectException
+                || cause instanceof ConnectTimeoutException
+                || cause instanceof NoHttpResponseException;
+    }
+
+    // полный разброс: случайная задержка от нуля до экспоненциально растущей границы
+    private long backoffNanos(int attempt) {
+        long bound = Math.min(retryMaxBackoffNanos, retryBackoffNanos << Math.min(attempt, 20));
+        return ThreadLocalRandom.current().nextLong(bound + 1);
+    }
+
+    private <T> T hedged(Supplier<T> attempt, Supplier<T> hedge, Predicate<T> isFailure) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        AtomicInteger pending = new AtomicInteger();
+        if (!submit(attempt, isFailure, result, pending)) {
+            return attempt.get();
+        }
+        try {
+            return result.get(currentHedgeDelayNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // ответ медленнее обычного: второй запрос, побеждает первый успешный ответ
+            if (retryBudget.tryWithdraw()) {
+                if (submit(hedge, isFailure, result, pending)) {
+                    hedges.increment();
+                }
+            } else {
+                budgetExhausted.increment();
+            }
+            return await(result);
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResourceAccessException("Запрос к серверу прерван");
+        }
+    }
+
+    private <T> boolean submit(Supplier<T> attempt, Predicate<T> isFailure, CompletableFuture<T> result,
+                               AtomicInteger pending) {
+        pending.incrementAndGet();
+        try {
+            hedgeExecutor.execute(() -> {
+                try {
+                    T value = attempt.get();
+                    // ответ с ошибкой сервера принимается, только если другого запроса нет или он тоже не удался
+                    if (!isFailure.test(value) || pending.decrementAndGet() == 0) {
+                        result.complete(value);
+                    }
+                } catch (RuntimeException | Error e) {
+                    if (pending.decrementAndGet() == 0) {
+                        result.completeExceptionally(e);
+                    }
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            pending.decrementAndGet();
+            return false;
+        }
+    }
+
+    private static <T> T await(CompletableFuture<T> result) {
+        try {
+            return result.get();
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResourceAccessException("Запрос к серверу прерван");
+        }
+    }
+
+    private static RuntimeException unwrap(ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof RuntimeException) {
+            return (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return new IllegalStateException(cause);
+    }
+
+    // перцентиль пересчитывается не чаще раза в секунду, снимок гистограммы не бесплатный
+    private long currentHedgeDelayNanos() {
+        long now = System.nanoTime();
+        if (now - hedgeDelayUpdatedAt > HEDGE_DELAY_REFRESH_NANOS) {
+            hedgeDelayUpdatedAt = now;
+            long percentile = 0;
+            for (ValueAtPercentile value : latency.takeSnapshot().percentileValues()) {
+                percentile = (long) value.value(TimeUnit.NANOSECONDS);
+            }
+            hedgeDelayNanos = Math.max(hedgeMinDelayNanos, percentile);
+        }
+        return hedgeDelayNanos;
+    }
+
+    void shutdown() {
+        if (hedgeExecutor != null) {
+            hedgeExecutor.shutdownNow();
+        }
+    }
+
+    private static CustomizableThreadFactory hedgeThreadFactory(String group) {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("gateway-hedge-" + group + "-");
+        threadFactory.setDaemon(true);
+        return threadFactory;
+    }
+
+    private static boolean sleep(long nanos) {
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private boolean acquirePermit() {
+        try {
+            return permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
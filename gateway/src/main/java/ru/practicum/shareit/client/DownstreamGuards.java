@@ -0,0 +1,41 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@EnableConfigurationProperties(ResilienceProperties.class)
+public class DownstreamGuards implements DisposableBean {
+    private final ResilienceProperties properties;
+    private final MeterRegistry registry;
+    private final RetryBudget retryBudget;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final ConcurrentMap<String, DownstreamGuard> guards = new ConcurrentHashMap<>();
+
+    public DownstreamGuards(ResilienceProperties properties, MeterRegistry registry) {
+        this.properties = properties;
+        this.registry = registry;
+        this.retryBudget = new RetryBudget(properties.getRetryBudget().getRatio(),
+                properties.getRetryBudget().getMinPerSecond());
+        this.limiter = properties.getLimiter().isEnabled()
+                ? new AdaptiveConcurrencyLimiter(properties.getLimiter(), registry)
+                : null;
+    }
+
+    public DownstreamGuard forGroup(String group) {
+        return guards.computeIfAbsent(group,
+                name -> new DownstreamGuard(name, properties.forGroup(name), retryBudget, limiter, registry));
+    }
+
+    @Override
+    public void destroy() {
+        guards.values().forEach(DownstreamGuard::shutdown);
+    }
+}
@@ -0,0 +1,146 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.util.EntityUtils;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// балансировка между экземплярами сервера без внешнего реестра: из двух случайных доступных экземпляров
+// выбирается тот, у которого меньше запросов в работе. Экземпляр исключается по активной проверке здоровья
+// или на ejectionDuration после failureThreshold сбоев подряд; если исключены все, запросы идут на все
+@Slf4j
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "shareit-server.load-balancer.instances")
+@EnableConfigurationProperties(LoadBalancerProperties.class)
+public class LoadBalancer implements DisposableBean {
+    private final List<ServerInstance> instances;
+    private final int failureThreshold;
+    private final long ejectionNanos;
+    private final Map<ServerInstance, Counter> ejections;
+    private final CloseableHttpClient httpClient;
+    private final RequestConfig healthCheckConfig;
+    private final String healthCheckPath;
+    private final ScheduledExecutorService healthChecker;
+
+    public LoadBalancer(LoadBalancerProperties properties, CloseableHttpClient httpClient, MeterRegistry registry) {
+        this.instances = properties.getInstances().stream()
+                .map(ServerInstance::new)
+                .collect(Collectors.toList());
+        if (instances.isEmpty()) {
+            throw new IllegalStateException("Не задан ни один экземпляр сервера");
+        }
+        this.failureThreshold = properties.getFailureThreshold();
+        this.ejectionNanos = properties.getEjectionDuration().toNanos();
+        this.httpClient = httpClient;
+        int timeout = (int) properties.getHealthCheckTimeout().toMillis();
+        this.healthCheckConfig = RequestConfig.custom()
+                .setConnectTimeout(timeout)
+                .setConnectionRequestTimeout(timeout)
+                .setSocketTimeout(timeout)
+                .build();
+        this.healthCheckPath = properties.getHealthCheckPath();
+
+        for (ServerInstance instance : instances) {
+            String name = instance.getBaseUri().toString();
+            Gauge.builder("gateway.lb.outstanding", instance, ServerInstance::getOutstanding)
+                    .tag("instance", name)
+                    .register(registry);
+            Gauge.builder("gateway.lb.available", instance, i -> i.isAvailable(System.nanoTime()) ? 1 : 0)
+                    .tag("instance", name)
+                    .register(registry);
+        }
+        this.ejections = instances.stream().collect(Collectors.toMap(Function.identity(),
+                instance -> Counter.builder("gateway.lb.ejections")
+                        .tag("instance", instance.getBaseUri().toString())
+                        .register(registry)));
+
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("gateway-health-check-");
+        threadFactory.setDaemon(true);
+        this.healthChecker = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        long interval = properties.getHealthCheckInterval().toMillis();
+        healthChecker.scheduleWithFixedDelay(this::checkHealth, 0, interval, TimeUnit.MILLISECONDS);
+    }
+
+    ServerInstance choose() {
+        long now = System.nanoTime();
+        List<ServerInstance> candidates = instances.stream()
+                .filter(instance -> instance.isAvailable(now))
+                .collect(Collectors.toList());
+        if (candidates.isEmpty()) {
+            candidates = instances;
+        }
+        int size = candidates.size();
+        if (size == 1) {
+            return candidates.get(0);
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(size);
+        int second = random.nextInt(size - 1);
+        if (second >= first) {
+            second++;
+        }
+        ServerInstance a = candidates.get(first);
+        ServerInstance b = candidates.get(second);
+        return a.getOutstanding() <= b.getOutstanding() ? a : b;
+    }
+
+    void onResult(ServerInstance instance, boolean failed) {
+        if (!failed) {
+            instance.onSuccess();
+        } else if (instance.onFailure(failureThreshold, ejectionNanos)) {
+            ejections.get(instance).increment();
+            log.warn("Экземпляр сервера {} исключен из балансировки после {} сбоев подряд",
+                    instance.getBaseUri(), failureThreshold);
+        }
+    }
+
+    private void checkHealth() {
+        for (ServerInstance instance : instances) {
+            boolean healthy = isHealthy(instance);
+            if (healthy != instance.isHealthy()) {
+                log.warn("Экземпляр сервера {} {}", instance.getBaseUri(),
+                        healthy ? "снова доступен" : "не прошел проверку здоровья");
+            }
+            instance.setHealthy(healthy);
+        }
+    }
+
+    private boolean isHealthy(ServerInstance instance) {
+        HttpGet request = new HttpGet(instance.getBaseUri().resolve(healthCheckPath));
+        request.setConfig(healthCheckConfig);
+        try {
+            HttpResponse response = httpClient.execute(request);
+            EntityUtils.consumeQuietly(response.getEntity());
+            return response.getStatusLine().getStatusCode() / 100 == 2;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        healthChecker.shutdownNow();
+    }
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server.load-balancer")
+public class LoadBalancerProperties {
+    // адреса экземпляров сервера; из shareit-server.url в запросе заменяются только схема, хост и порт
+    private List<URI> instances = new ArrayList<>();
+    private String healthCheckPath = "/actuator/health";
+    private Duration healthCheckInterval = Duration.ofSeconds(5);
+    private Duration healthCheckTimeout = Duration.ofSeconds(1);
+    // подряд идущие сбои соединения или ответы 5xx, после которых экземпляр временно исключается
+    private int failureThreshold = 3;
+    private Duration ejectionDuration = Duration.ofSeconds(30);
+}
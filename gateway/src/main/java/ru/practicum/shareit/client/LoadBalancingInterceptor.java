@@ -0,0 +1,94 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.support.HttpRequestWrapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// каждый запрос, включая повторы, уходит на экземпляр, выбранный балансировщиком
+class LoadBalancingInterceptor implements ClientHttpRequestInterceptor {
+    private final LoadBalancer loadBalancer;
+
+    LoadBalancingInterceptor(LoadBalancer loadBalancer) {
+        this.loadBalancer = loadBalancer;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        ServerInstance instance = loadBalancer.choose();
+        URI uri = instance.resolve(request.getURI());
+        instance.onStart();
+        ClientHttpResponse response;
+        try {
+            response = execution.execute(new HttpRequestWrapper(request) {
+                @Override
+                public URI getURI() {
+                    return uri;
+                }
+            }, body);
+        } catch (IOException | RuntimeException e) {
+            instance.onFinish();
+            loadBalancer.onResult(instance, true);
+            throw e;
+        }
+        loadBalancer.onResult(instance, response.getRawStatusCode() / 100 == 5);
+        // запрос остается в работе, пока читается тело ответа: для потоковой выдачи это намного дольше заголовков
+        return new ReleasingResponse(response, instance);
+    }
+
+    private static class ReleasingResponse implements ClientHttpResponse {
+        private final ClientHttpResponse response;
+        private final ServerInstance instance;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        ReleasingResponse(ClientHttpResponse response, ServerInstance instance) {
+            this.response = response;
+            this.instance = instance;
+        }
+
+        @Override
+        public HttpStatus getStatusCode() throws IOException {
+            return response.getStatusCode();
+        }
+
+        @Override
+        public int getRawStatusCode() throws IOException {
+            return response.getRawStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return response.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return response.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            return response.getBody();
+        }
+
+        @Override
+        public void close() {
+            try {
+                response.close();
+            } finally {
+                if (released.compareAndSet(false, true)) {
+                    instance.onFinish();
+                }
+            }
+        }
+    }
+}
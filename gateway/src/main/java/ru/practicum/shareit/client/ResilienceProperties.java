@@ -0,0 +1,95 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.resilience")
+public class ResilienceProperties {
+    // настройки по умолчанию для всех групп маршрутов; в groups по имени группы (users, items, ...) задаются только отличия
+    private Group defaults = Group.defaults();
+    private Map<String, Group> groups = new HashMap<>();
+    private Budget retryBudget = new Budget();
+    private Limiter limiter = new Limiter();
+
+    public Group forGroup(String name) {
+        Group override = groups.get(name);
+        return override != null ? defaults.merge(override) : defaults;
+    }
+
+    @Getter
+    @Setter
+    public static class Group {
+        // null - значение берется из defaults
+        private Integer maxConcurrentCalls;
+        private Duration maxWait;
+        private Integer failureThreshold;
+        private Duration openDuration;
+        // повтор GET при сбое соединения с экспоненциальной задержкой со случайной составляющей
+        private Integer maxRetries;
+        private Duration retryBackoff;
+        private Duration retryMaxBackoff;
+        // дублирующий GET, если ответ дольше hedgePercentile времени ответа группы, но не раньше hedgeMinDelay
+        private Boolean hedgeEnabled;
+        private Double hedgePercentile;
+        private Duration hedgeMinDelay;
+
+        static Group defaults() {
+            Group group = new Group();
+            group.maxConcurrentCalls = 50;
+            group.maxWait = Duration.ZERO;
+            group.failureThreshold = 5;
+            group.openDuration = Duration.ofSeconds(10);
+            group.maxRetries = 2;
+            group.retryBackoff = Duration.ofMillis(50);
+            group.retryMaxBackoff = Duration.ofSeconds(1);
+            group.hedgeEnabled = false;
+            group.hedgePercentile = 0.95;
+            group.hedgeMinDelay = Duration.ofMillis(20);
+            return group;
+        }
+
+        Group merge(Group override) {
+            Group group = new Group();
+            group.maxConcurrentCalls = or(override.maxConcurrentCalls, maxConcurrentCalls);
+            group.maxWait = or(override.maxWait, maxWait);
+            group.failureThreshold = or(override.failureThreshold, failureThreshold);
+            group.openDuration = or(override.openDuration, openDuration);
+            group.maxRetries = or(override.maxRetries, maxRetries);
+            group.retryBackoff = or(override.retryBackoff, retryBackoff);
+            group.retryMaxBackoff = or(override.retryMaxBackoff, retryMaxBackoff);
+            group.hedgeEnabled = or(override.hedgeEnabled, hedgeEnabled);
+            group.hedgePercentile = or(override.hedgePercentile, hedgePercentile);
+            group.hedgeMinDelay = or(override.hedgeMinDelay, hedgeMinDelay);
+            return group;
+        }
+
+        private static <T> T or(T value, T fallback) {
+            return value != null ? value : fallback;
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class Budget {
+        private double ratio = 0.1;
+        private int minPerSecond = 10;
+    }
+
+    @Getter
+    @Setter
+    public static class Limiter {
+        private boolean enabled = true;
+        private int initialLimit = 50;
+        private int minLimit = 5;
+        private int maxLimit = 200;
+        private double backoffRatio = 0.9;
+        private Duration slowCallThreshold = Duration.ofMillis(500);
+    }
+}
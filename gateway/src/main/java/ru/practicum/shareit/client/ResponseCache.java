@@ -0,0 +1,73 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@EnableConfigurationProperties(ResponseCacheProperties.class)
+public class ResponseCache implements MeterBinder {
+    private static final String CACHE_NAME = "gateway-responses";
+
+    private final Cache<Key, ResponseEntity<Object>> cache;
+    // меняется при каждой инвалидации, чтобы ответ, полученный до изменения данных, не попал в кэш после него
+    private final AtomicLong version = new AtomicLong();
+
+    public ResponseCache(ResponseCacheProperties properties) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+    }
+
+    public ResponseEntity<Object> get(URI uri, @Nullable Long userId, Supplier<ResponseEntity<Object>> loader) {
+        Key key = new Key(uri.getRawPath(), uri.getRawQuery(), userId);
+        ResponseEntity<Object> cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        long loadedVersion = version.get();
+        ResponseEntity<Object> response = loader.get();
+        if (response.getStatusCode().is2xxSuccessful() && version.get() == loadedVersion) {
+            cache.put(key, response);
+        }
+        return response;
+    }
+
+    public void evict(Predicate<String> pathMatcher) {
+        version.incrementAndGet();
+        cache.asMap().keySet().removeIf(key -> pathMatcher.test(key.getPath()));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME);
+        Gauge.builder("cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .tag("cache", CACHE_NAME)
+                .description("Доля запросов, обслуженных из кэша")
+                .register(registry);
+    }
+
+    @Value
+    private static class Key {
+        String path;
+        String query;
+        Long userId;
+    }
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.response-cache")
+public class ResponseCacheProperties {
+    private long maxSize = 10_000;
+    private Duration ttl = Duration.ofSeconds(30);
+}
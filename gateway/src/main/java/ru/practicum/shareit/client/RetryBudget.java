@@ -0,0 +1,40 @@
+package ru.practicum.shareit.client;
+
+// общий на все группы бюджет повторов и дублирующих запросов: каждый исходный запрос добавляет ratio жетона,
+// кроме того, бюджет пополняется на minPerSecond жетонов в секунду; один повтор стоит один жетон.
+// Так дополнительная нагрузка на сервер не превышает ratio от потока запросов плюс minPerSecond
+class RetryBudget {
+    private final double ratio;
+    private final double minPerNano;
+    private final double capacity;
+
+    private double balance;
+    private long lastRefill = System.nanoTime();
+
+    RetryBudget(double ratio, int minPerSecond) {
+        this.ratio = ratio;
+        this.minPerNano = minPerSecond / 1_000_000_000.0;
+        this.capacity = Math.max(minPerSecond, 1);
+        this.balance = capacity;
+    }
+
+    synchronized void onRequest() {
+        refill();
+        balance = Math.min(capacity, balance + ratio);
+    }
+
+    synchronized boolean tryWithdraw() {
+        refill();
+        if (balance < 1) {
+            return false;
+        }
+        balance -= 1;
+        return true;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        balance = Math.min(capacity, balance + (now - lastRefill) * minPerNano);
+        lastRefill = now;
+    }
+}
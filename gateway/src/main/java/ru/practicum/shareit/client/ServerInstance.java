@@ -0,0 +1,72 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class ServerInstance {
+    private final URI baseUri;
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private volatile boolean healthy = true;
+    private volatile long ejectedUntil;
+    private int consecutiveFailures;
+
+    ServerInstance(URI baseUri) {
+        this.baseUri = baseUri;
+        // System.nanoTime() может быть отрицательным, поэтому отсчет идет от момента создания, а не от нуля
+        this.ejectedUntil = System.nanoTime();
+    }
+
+    URI getBaseUri() {
+        return baseUri;
+    }
+
+    URI resolve(URI uri) {
+        return UriComponentsBuilder.fromUri(uri)
+                .scheme(baseUri.getScheme())
+                .host(baseUri.getHost())
+                .port(baseUri.getPort())
+                .build(true)
+                .toUri();
+    }
+
+    int getOutstanding() {
+        return outstanding.get();
+    }
+
+    void onStart() {
+        outstanding.incrementAndGet();
+    }
+
+    void onFinish() {
+        outstanding.decrementAndGet();
+    }
+
+    boolean isAvailable(long now) {
+        return healthy && now - ejectedUntil >= 0;
+    }
+
+    boolean isHealthy() {
+        return healthy;
+    }
+
+    void setHealthy(boolean healthy) {
+        this.healthy = healthy;
+    }
+
+    synchronized void onSuccess() {
+        consecutiveFailures = 0;
+    }
+
+    // возвращает true, если экземпляр только что исключен
+    synchronized boolean onFailure(int failureThreshold, long ejectionNanos) {
+        consecutiveFailures++;
+        if (consecutiveFailures < failureThreshold) {
+            return false;
+        }
+        consecutiveFailures = 0;
+        ejectedUntil = System.nanoTime() + ejectionNanos;
+        return true;
+    }
+}
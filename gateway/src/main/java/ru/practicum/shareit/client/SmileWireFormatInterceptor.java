@@ -0,0 +1,99 @@
+package ru.practicum.shareit.client;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+// сервер кодирует ответы в Smile, клиенту шлюза они уходят в JSON
+class SmileWireFormatInterceptor implements ClientHttpRequestInterceptor {
+    static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+
+    private final SmileFactory smileFactory = new SmileFactory();
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        HttpHeaders headers = request.getHeaders();
+        // потоковые ответы запрашиваются в своем формате и не перекодируются
+        if (!List.of(MediaType.APPLICATION_JSON).equals(headers.getAccept())) {
+            return execution.execute(request, body);
+        }
+        headers.setAccept(List.of(APPLICATION_SMILE, MediaType.APPLICATION_JSON));
+        ClientHttpResponse response = execution.execute(request, body);
+        if (!APPLICATION_SMILE.isCompatibleWith(response.getHeaders().getContentType())) {
+            return response;
+        }
+        return new JsonResponse(response, toJson(response.getBody()));
+    }
+
+    // перекодирование идет по токенам, без построения объектов
+    private byte[] toJson(InputStream smile) throws IOException {
+        ByteArrayOutputStream json = new ByteArrayOutputStream();
+        try (JsonParser parser = smileFactory.createParser(smile);
+             JsonGenerator generator = jsonFactory.createGenerator(json)) {
+            while (parser.nextToken() != null) {
+                generator.copyCurrentEvent(parser);
+            }
+        }
+        return json.toByteArray();
+    }
+
+    private static class JsonResponse implements ClientHttpResponse {
+        private final ClientHttpResponse response;
+        private final byte[] body;
+        private final HttpHeaders headers = new HttpHeaders();
+
+        JsonResponse(ClientHttpResponse response, byte[] body) {
+            this.response = response;
+            this.body = body;
+            headers.putAll(response.getHeaders());
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            headers.setContentLength(body.length);
+        }
+
+        @Override
+        public HttpStatus getStatusCode() throws IOException {
+            return response.getStatusCode();
+        }
+
+        @Override
+        public int getRawStatusCode() throws IOException {
+            return response.getRawStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return response.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        @Override
+        public InputStream getBody() {
+            return new ByteArrayInputStream(body);
+        }
+
+        @Override
+        public void close() {
+            response.close();
+        }
+    }
+}
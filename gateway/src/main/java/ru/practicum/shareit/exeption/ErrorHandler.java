@@ -33,6 +33,13 @@ public class ErrorHandler {
         return errors;
     }
 
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ErrorMessage handlerServiceUnavailableException(final ServiceUnavailableException e) {
+        log.warn(e.getMessage());
+        return new ErrorMessage(e.getMessage());
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public ErrorMessage handlerException(final RuntimeException e) {
@@ -0,0 +1,42 @@
+package ru.practicum.shareit.exeption;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ServerWebInputException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// в WebFlux ошибки разбора запроса приходят другими исключениями, чем в MVC
+@Slf4j
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RestControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveErrorHandler {
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public List<ErrorMessageField> handlerValidateException(final WebExchangeBindException e) {
+        log.warn(e.getMessage());
+        List<ErrorMessageField> errors = new ArrayList<>();
+        e.getBindingResult().getFieldErrors().forEach(
+                fieldError -> {
+                    errors.add(new ErrorMessageField(fieldError.getField(), fieldError.getDefaultMessage()));
+                });
+        return errors;
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorMessage handlerInputException(final ServerWebInputException e) {
+        log.warn(e.getMessage());
+        return new ErrorMessage(e.getReason());
+    }
+}
@@ -1,54 +1,25 @@
 package ru.practicum.shareit.item;
 
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
-import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
-import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.item.dto.CommentRequestDto;
 import ru.practicum.shareit.item.dto.ItemRequestDto;
 
-import java.util.Map;
-
-@Service
-public class ItemClient extends BaseClient {
-    private static final String API_PREFIX = "/items";
-
-    @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(builder
-                .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                .build());
-    }
-
-    public ResponseEntity<Object> create(long userId, ItemRequestDto itemDto) {
-        return post("", userId, itemDto);
-    }
-
-    public ResponseEntity<Object> update(long userId, long id, ItemRequestDto itemDto) {
-        return patch("/" + id, userId, itemDto);
-    }
-
-    public ResponseEntity<Object> findById(Long itemId, Long userId) {
-        return get("/" + itemId, userId);
-    }
-
-    public ResponseEntity<Object> findAllByUserId(Long userId) {
-        return get("", userId, null);
-    }
-
-    public ResponseEntity<Object> search(String text) {
-        Map<String, Object> parameters = Map.of(
-                "text", text
-        );
-        return get("/search?text={text}", null, parameters);
-    }
-
-    public ResponseEntity<Object> addComment(long userId, long itemId, CommentRequestDto commentNewDto) {
-        return post("/" + itemId + "/comment", userId, commentNewDto);
-    }
+import java.io.OutputStream;
+
+public interface ItemClient {
+    ResponseEntity<Object> create(long userId, ItemRequestDto itemDto);
+
+    ResponseEntity<Object> update(long userId, long id, ItemRequestDto itemDto);
+
+    ResponseEntity<Object> findById(Long itemId, Long userId);
+
+    ResponseEntity<Object> findAllByUserId(Long userId);
+
+    ResponseEntity<Object> search(String text, int from, int size);
+
+    ResponseEntity<Object> searchPage(String text, String cursor, int size);
+
+    void streamSearch(String text, OutputStream outputStream);
+
+    ResponseEntity<Object> addComment(long userId, long itemId, CommentRequestDto commentNewDto);
 }
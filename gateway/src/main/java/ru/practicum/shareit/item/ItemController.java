@@ -2,19 +2,26 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.Constants;
 import ru.practicum.shareit.item.dto.CommentRequestDto;
 import ru.practicum.shareit.item.dto.ItemRequestDto;
 
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
 import java.nio.file.AccessDeniedException;
 import java.util.Collections;
 
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/items")
 @RequiredArgsConstructor
 @Validated
@@ -50,15 +57,33 @@ public class ItemController {
     }
 
     @GetMapping("search")
-    public ResponseEntity<Object> findItemsByQueryText(@RequestParam(name = "text", defaultValue = "") String queryText) {
+    public ResponseEntity<Object> findItemsByQueryText(@RequestParam(name = "text", defaultValue = "") String queryText,
+                                                       @PositiveOrZero
+                                                       @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                       @Positive
+                                                       @RequestParam(name = "size", defaultValue = Constants.PAGE_SIZE_STRING) Integer size,
+                                                       @RequestParam(name = "cursor", required = false) String cursor) {
         log.info("GET /items search- поиск вещи.");
         if (queryText == null || queryText.isBlank()) {
             return ResponseEntity.ok(Collections.EMPTY_LIST);
+        } else if (cursor != null) {
+            return itemClient.searchPage(queryText, cursor, size);
         } else {
-            return itemClient.search(queryText);
+            return itemClient.search(queryText, from, size);
         }
     }
 
+    @GetMapping(path = "search", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamItemsByQueryText(@RequestParam(name = "text", defaultValue = "") String queryText) {
+        log.info("GET /items search - потоковый поиск вещи.");
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON);
+        if (queryText == null || queryText.isBlank()) {
+            return responseBuilder.body(outputStream -> {
+            });
+        }
+        return responseBuilder.body(outputStream -> itemClient.streamSearch(queryText, outputStream));
+    }
+
     @PostMapping("{itemId}/comment")
     public ResponseEntity<Object> addCommentToItem(@RequestHeader(name = "X-Sharer-User-Id") Long userId,
                                                    @NotNull @PathVariable Long itemId,
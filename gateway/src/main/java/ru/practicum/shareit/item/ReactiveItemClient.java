@@ -0,0 +1,75 @@
+package ru.practicum.shareit.item;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.ReactiveBaseClient;
+import ru.practicum.shareit.item.dto.CommentRequestDto;
+import ru.practicum.shareit.item.dto.ItemRequestDto;
+
+import java.util.Map;
+
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveItemClient extends ReactiveBaseClient {
+    private static final String API_PREFIX = "/items";
+
+    @Autowired
+    public ReactiveItemClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder) {
+        super(builder
+                .baseUrl(serverUrl + API_PREFIX)
+                .build());
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> create(long userId, ItemRequestDto itemDto) {
+        return post("", userId, itemDto);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> update(long userId, long id, ItemRequestDto itemDto) {
+        return patch("/" + id, userId, null, itemDto);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> findById(Long itemId, Long userId) {
+        return get("/" + itemId, userId, null);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> findAllByUserId(Long userId) {
+        return get("", userId, null);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> search(String text, int from, int size) {
+        Map<String, Object> parameters = Map.of(
+                "text", text,
+                "from", from,
+                "size", size
+        );
+        return get("/search?text={text}&from={from}&size={size}", null, parameters);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> searchPage(String text, String cursor, int size) {
+        Map<String, Object> parameters = Map.of(
+                "text", text,
+                "cursor", cursor,
+                "size", size
+        );
+        return get("/search?text={text}&cursor={cursor}&size={size}", null, parameters);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> streamSearch(String text) {
+        Map<String, Object> parameters = Map.of(
+                "text", text
+        );
+        return stream("/search?text={text}", parameters, MediaType.APPLICATION_NDJSON);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> addComment(long userId, long itemId, CommentRequestDto commentNewDto) {
+        return post("/" + itemId + "/comment", userId, commentNewDto);
+    }
+}
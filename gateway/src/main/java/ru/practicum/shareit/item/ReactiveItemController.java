@@ -0,0 +1,98 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.Constants;
+import ru.practicum.shareit.item.dto.CommentRequestDto;
+import ru.practicum.shareit.item.dto.ItemRequestDto;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+import java.nio.charset.StandardCharsets;
+
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/items")
+@RequiredArgsConstructor
+@Validated
+@Slf4j
+public class ReactiveItemController {
+    private static final byte[] EMPTY_LIST = "[]".getBytes(StandardCharsets.UTF_8);
+
+    private final ReactiveItemClient itemClient;
+
+    @GetMapping
+    public Mono<ResponseEntity<Flux<DataBuffer>>> findAllItemsByUserId(@NotNull @RequestHeader(name = "X-Sharer-User-Id") Long ownerId) {
+        log.info("GET /items - получение списка вещей по id пользователя.");
+        return itemClient.findAllByUserId(ownerId);
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<Flux<DataBuffer>>> createItem(@NotNull @RequestHeader(name = "X-Sharer-User-Id") Long userId,
+                                                             @Valid @RequestBody Mono<ItemRequestDto> itemDto) {
+        log.info("POST /items - создание новой вещи.");
+        return itemDto.flatMap(dto -> itemClient.create(userId, dto));
+    }
+
+    @GetMapping("{itemId}")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> findItemById(@PathVariable Long itemId,
+                                                               @RequestHeader("X-Sharer-User-Id") Long userId) {
+        return itemClient.findById(itemId, userId);
+    }
+
+    @PatchMapping("{itemId}")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> updateItem(@RequestHeader(name = "X-Sharer-User-Id") Long userId,
+                                                             @NotNull @PathVariable Long itemId,
+                                                             @RequestBody Mono<ItemRequestDto> itemDto) {
+        log.info("PATCH /items - обновление вещи.");
+        return itemDto.flatMap(dto -> itemClient.update(userId, itemId, dto));
+    }
+
+    @GetMapping("search")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> findItemsByQueryText(@RequestParam(name = "text", defaultValue = "") String queryText,
+                                                                       @PositiveOrZero
+                                                                       @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                                       @Positive
+                                                                       @RequestParam(name = "size", defaultValue = Constants.PAGE_SIZE_STRING) Integer size,
+                                                                       @RequestParam(name = "cursor", required = false) String cursor) {
+        log.info("GET /items search- поиск вещи.");
+        if (queryText == null || queryText.isBlank()) {
+            return Mono.just(ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(EMPTY_LIST))));
+        } else if (cursor != null) {
+            return itemClient.searchPage(queryText, cursor, size);
+        } else {
+            return itemClient.search(queryText, from, size);
+        }
+    }
+
+    @GetMapping(path = "search", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Mono<ResponseEntity<Flux<DataBuffer>>> streamItemsByQueryText(@RequestParam(name = "text", defaultValue = "") String queryText) {
+        log.info("GET /items search - потоковый поиск вещи.");
+        if (queryText == null || queryText.isBlank()) {
+            return Mono.just(ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(Flux.empty()));
+        }
+        return itemClient.streamSearch(queryText);
+    }
+
+    @PostMapping("{itemId}/comment")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> addCommentToItem(@RequestHeader(name = "X-Sharer-User-Id") Long userId,
+                                                                   @NotNull @PathVariable Long itemId,
+                                                                   @Valid @RequestBody Mono<CommentRequestDto> commentInDto) {
+        log.info("POST {itemId}/comment - добавление комментария");
+        return commentInDto.flatMap(dto -> itemClient.addComment(userId, itemId, dto));
+    }
+}
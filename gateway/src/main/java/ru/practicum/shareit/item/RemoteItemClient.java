@@ -0,0 +1,94 @@
+package ru.practicum.shareit.item;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.DownstreamGuards;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.item.dto.CommentRequestDto;
+import ru.practicum.shareit.item.dto.ItemRequestDto;
+
+import java.io.OutputStream;
+import java.util.Map;
+
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class RemoteItemClient extends BaseClient implements ItemClient {
+    private static final String API_PREFIX = "/items";
+
+    @Autowired
+    public RemoteItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      ResponseCache responseCache, DownstreamGuards guards) {
+        super(builder
+                .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
+                .build(), responseCache, guards.forGroup("items"));
+    }
+
+    @Override
+    public ResponseEntity<Object> create(long userId, ItemRequestDto itemDto) {
+        ResponseEntity<Object> response = post("", userId, itemDto);
+        // новая вещь может попасть в результаты поиска и в ответы на запрос
+        evictCached(path -> path.equals(API_PREFIX + "/search")
+                || (itemDto.getRequestId() != null && path.equals("/requests/" + itemDto.getRequestId())));
+        return response;
+    }
+
+    @Override
+    public ResponseEntity<Object> update(long userId, long id, ItemRequestDto itemDto) {
+        ResponseEntity<Object> response = patch("/" + id, userId, itemDto);
+        // прежний запрос вещи шлюзу неизвестен, поэтому сбрасываются все закэшированные запросы
+        evictCached(path -> path.equals(API_PREFIX + "/search") || path.startsWith("/requests/"));
+        return response;
+    }
+
+    @Override
+    public ResponseEntity<Object> findById(Long itemId, Long userId) {
+        // не кэшируется: владельцу в карточке показываются ближайшие бронирования, которые зависят от текущего времени,
+        // а отличить владельца от других пользователей шлюз не может; повторный запрос дешевле сделает ETag сервера
+        return get("/" + itemId, userId, null);
+    }
+
+    @Override
+    public ResponseEntity<Object> findAllByUserId(Long userId) {
+        return get("", userId, null);
+    }
+
+    @Override
+    public ResponseEntity<Object> search(String text, int from, int size) {
+        Map<String, Object> parameters = Map.of(
+                "text", text,
+                "from", from,
+                "size", size
+        );
+        return cachedGet("/search?text={text}&from={from}&size={size}", null, parameters);
+    }
+
+    @Override
+    public ResponseEntity<Object> searchPage(String text, String cursor, int size) {
+        Map<String, Object> parameters = Map.of(
+                "text", text,
+                "cursor", cursor,
+                "size", size
+        );
+        return cachedGet("/search?text={text}&cursor={cursor}&size={size}", null, parameters);
+    }
+
+    @Override
+    public void streamSearch(String text, OutputStream outputStream) {
+        Map<String, Object> parameters = Map.of(
+                "text", text
+        );
+        stream("/search?text={text}", parameters, MediaType.APPLICATION_NDJSON, outputStream);
+    }
+
+    @Override
+    public ResponseEntity<Object> addComment(long userId, long itemId, CommentRequestDto commentNewDto) {
+        return post("/" + itemId + "/comment", userId, commentNewDto);
+    }
+}
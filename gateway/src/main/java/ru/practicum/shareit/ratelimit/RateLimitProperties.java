@@ -0,0 +1,46 @@
+package ru.practicum.shareit.ratelimit;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.rate-limit")
+public class RateLimitProperties {
+    private boolean enabled = true;
+    private long maxBuckets = 100_000;
+    private Duration bucketIdleTimeout = Duration.ofMinutes(10);
+    // лимит по умолчанию для всех групп маршрутов; в groups задаются только отличия от него
+    private Limit defaults = Limit.of(100, 50);
+    private Map<RouteGroup, Limit> groups = new HashMap<>();
+
+    public Limit forGroup(RouteGroup group) {
+        Limit override = groups.get(group);
+        return override != null ? defaults.merge(override) : defaults;
+    }
+
+    @Getter
+    @Setter
+    public static class Limit {
+        // null - значение берется из defaults
+        private Long capacity;
+        private Double refillPerSecond;
+
+        static Limit of(long capacity, double refillPerSecond) {
+            Limit limit = new Limit();
+            limit.capacity = capacity;
+            limit.refillPerSecond = refillPerSecond;
+            return limit;
+        }
+
+        Limit merge(Limit override) {
+            return of(override.capacity != null ? override.capacity : capacity,
+                    override.refillPerSecond != null ? override.refillPerSecond : refillPerSecond);
+        }
+    }
+}
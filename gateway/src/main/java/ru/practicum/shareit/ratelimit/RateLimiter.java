@@ -0,0 +1,64 @@
+package ru.practicum.shareit.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+
+@Component
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimiter {
+    public static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    public static final String REJECTED_MESSAGE = "Слишком много запросов, повторите позже";
+
+    private final boolean enabled;
+    // лимиты всех групп вычисляются один раз при старте
+    private final Map<RouteGroup, RateLimitProperties.Limit> limits = new EnumMap<>(RouteGroup.class);
+    // корзины неактивных клиентов вытесняются, чтобы таблица не росла без ограничений
+    private final Cache<BucketKey, TokenBucket> buckets;
+
+    public RateLimiter(RateLimitProperties properties) {
+        this.enabled = properties.isEnabled();
+        for (RouteGroup group : RouteGroup.values()) {
+            limits.put(group, properties.forGroup(group));
+        }
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxBuckets())
+                .expireAfterAccess(properties.getBucketIdleTimeout())
+                .build();
+    }
+
+    // clientId - значение X-Sharer-User-Id или адрес клиента, если заголовка нет;
+    // пустой результат - запрос можно выполнять, иначе через сколько его повторить
+    public Optional<Duration> tryAcquire(String path, String clientId) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        Optional<RouteGroup> group = RouteGroup.fromPath(path);
+        if (group.isEmpty()) {
+            return Optional.empty();
+        }
+        RateLimitProperties.Limit limit = limits.get(group.get());
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.get(new BucketKey(group.get(), clientId),
+                key -> new TokenBucket(limit.getCapacity(), limit.getRefillPerSecond(), now));
+        long waitNanos = bucket.tryAcquire(now);
+        return waitNanos == 0 ? Optional.empty() : Optional.of(Duration.ofNanos(waitNanos));
+    }
+
+    public static long retryAfterSeconds(Duration wait) {
+        return Math.max(1, (wait.toMillis() + 999) / 1000);
+    }
+
+    @Value
+    private static class BucketKey {
+        RouteGroup group;
+        String clientId;
+    }
+}
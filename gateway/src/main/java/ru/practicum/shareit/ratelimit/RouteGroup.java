@@ -0,0 +1,26 @@
+package ru.practicum.shareit.ratelimit;
+
+import java.util.Optional;
+
+public enum RouteGroup {
+    BOOKINGS,
+    ITEMS,
+    SEARCH,
+    REQUESTS;
+
+    public static Optional<RouteGroup> fromPath(String path) {
+        if (path.startsWith("/items/search")) {
+            return Optional.of(SEARCH);
+        }
+        if (path.startsWith("/items")) {
+            return Optional.of(ITEMS);
+        }
+        if (path.startsWith("/bookings")) {
+            return Optional.of(BOOKINGS);
+        }
+        if (path.startsWith("/requests")) {
+            return Optional.of(REQUESTS);
+        }
+        return Optional.empty();
+    }
+}
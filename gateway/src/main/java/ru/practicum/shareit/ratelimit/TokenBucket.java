@@ -0,0 +1,40 @@
+package ru.practicum.shareit.ratelimit;
+
+import lombok.AllArgsConstructor;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+// состояние корзины неизменяемо и заменяется через compareAndSet, поэтому блокировок нет
+class TokenBucket {
+    private final double capacity;
+    private final double tokensPerNano;
+    private final AtomicReference<State> state;
+
+    TokenBucket(long capacity, double refillPerSecond, long nowNanos) {
+        this.capacity = capacity;
+        this.tokensPerNano = refillPerSecond / 1_000_000_000.0;
+        this.state = new AtomicReference<>(new State(capacity, nowNanos));
+    }
+
+    // 0, если токен получен, иначе сколько наносекунд ждать следующего токена
+    long tryAcquire(long nowNanos) {
+        while (true) {
+            State current = state.get();
+            long elapsed = Math.max(0, nowNanos - current.timestamp);
+            double tokens = Math.min(capacity, current.tokens + elapsed * tokensPerNano);
+            if (tokens < 1) {
+                return (long) Math.ceil((1 - tokens) / tokensPerNano);
+            }
+            State next = new State(tokens - 1, Math.max(nowNanos, current.timestamp));
+            if (state.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    @AllArgsConstructor
+    private static class State {
+        private final double tokens;
+        private final long timestamp;
+    }
+}
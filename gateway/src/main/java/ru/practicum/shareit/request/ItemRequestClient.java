@@ -1,50 +1,14 @@
 package ru.practicum.shareit.request;
 
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
-import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
-import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
-import java.util.Map;
+public interface ItemRequestClient {
+    ResponseEntity<Object> saveItemRequest(long userId, ItemRequestDto requestDto);
 
-@Service
-public class ItemRequestClient extends BaseClient {
-    private static final String API_PREFIX = "/requests";
+    ResponseEntity<Object> findAllByRequestor(long userId, int from, int size);
 
-    @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(builder
-                .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                .build());
-    }
+    ResponseEntity<Object> findItemRequests(Long userId, int from, int size);
 
-    public ResponseEntity<Object> saveItemRequest(long userId, ItemRequestDto requestDto) {
-        return post("", userId, requestDto);
-    }
-
-    public ResponseEntity<Object> findAllByRequestor(long userId, int from, int size) {
-        Map<String, Object> parameters = Map.of(
-                "from", from,
-                "size", size
-        );
-        return get("", userId, parameters);
-    }
-
-    public ResponseEntity<Object> findItemRequests(Long userId, int from, int size) {
-        Map<String, Object> parameters = Map.of(
-                "from", from,
-                "size", size
-        );
-        return get("/all?from={from}&size={size}", userId, parameters);
-    }
-
-    public ResponseEntity<Object> getItemRequest(long userId, long id) {
-        return get("/" + id, userId);
-    }
+    ResponseEntity<Object> getItemRequest(long userId, long id);
 }
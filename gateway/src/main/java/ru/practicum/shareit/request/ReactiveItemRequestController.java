@@ -0,0 +1,63 @@
+package ru.practicum.shareit.request;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.Constants;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping(path = "/requests")
+@RequiredArgsConstructor
+@Validated
+@Slf4j
+public class ReactiveItemRequestController {
+    private final ReactiveItemRequestClient requestClient;
+
+    @PostMapping
+    public Mono<ResponseEntity<Flux<DataBuffer>>> createItemRequest(@NotNull @RequestHeader(name = "X-Sharer-User-Id") Long userId,
+                                                                    @Valid @RequestBody Mono<ItemRequestDto> requestInDto) {
+        log.info("POST /requests - добавление запроса на вещь пользователем {}", userId);
+        return requestInDto.flatMap(dto -> requestClient.saveItemRequest(userId, dto));
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<Flux<DataBuffer>>> findAllRequestByUserId(@NotNull @RequestHeader(name = "X-Sharer-User-Id") Long userId,
+                                                                         @PositiveOrZero
+                                                                         @RequestParam(defaultValue = "0") Integer from,
+                                                                         @Positive
+                                                                         @RequestParam(defaultValue = Constants.PAGE_SIZE_STRING) Integer size) {
+        log.info("GET /requests - список запросов вещей пользователя {}", userId);
+        return requestClient.findAllByRequestor(userId, from, size);
+    }
+
+    @GetMapping("{requestId}")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getRequestById(@NotNull @RequestHeader(name = "X-Sharer-User-Id") Long userId,
+                                                                 @NotNull @PathVariable Long requestId) {
+        log.info("GET /requests/{} - информация о запросе", userId);
+        return requestClient.getItemRequest(userId, requestId);
+    }
+
+    @GetMapping("all")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getPageableRequestById(@NotNull @RequestHeader(name = "X-Sharer-User-Id") Long userId,
+                                                                         @PositiveOrZero
+                                                                         @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                                         @Positive
+                                                                         @RequestParam(name = "size", defaultValue = Constants.PAGE_SIZE_STRING) Integer size) {
+        log.info("GET /requests/all - список запросов");
+        return requestClient.findItemRequests(userId, from, size);
+    }
+
+}
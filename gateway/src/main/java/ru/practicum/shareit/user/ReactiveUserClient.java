@@ -0,0 +1,49 @@
+package ru.practicum.shareit.user;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.ReactiveBaseClient;
+import ru.practicum.shareit.user.dto.CreateUserDto;
+
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveUserClient extends ReactiveBaseClient {
+
+    private static final String API_PREFIX = "/users";
+
+    @Autowired
+    public ReactiveUserClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder) {
+        super(builder
+                .baseUrl(serverUrl + API_PREFIX)
+                .build());
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> registerUser(CreateUserDto dto) {
+        return post("", null, dto);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> updateUser(long userId, CreateUserDto dto) {
+        return patch("/" + userId, null, null, dto);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getUser(long userId) {
+        return get("/" + userId, userId);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> findAll() {
+        return get("");
+    }
+
+    public Mono<Void> deleteUser(long userId) {
+        return delete("/" + userId)
+                .flatMap(response -> response.getBody().map(DataBufferUtils::release).then());
+    }
+}
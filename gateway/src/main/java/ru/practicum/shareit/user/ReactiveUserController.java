@@ -0,0 +1,59 @@
+package ru.practicum.shareit.user;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.user.dto.CreateUserDto;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/users")
+@AllArgsConstructor
+@Validated
+@Slf4j
+public class ReactiveUserController {
+
+    private ReactiveUserClient client;
+
+
+    @GetMapping
+    public Mono<ResponseEntity<Flux<DataBuffer>>> findAllUsers() {
+        log.info("GET /users - получение списка вcех пользователей.");
+        return client.findAll();
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<Flux<DataBuffer>>> createUser(@Valid @RequestBody Mono<CreateUserDto> userDto) {
+        log.info("POST /users - создание нового пользователя.");
+        return userDto.flatMap(client::registerUser);
+    }
+
+    @GetMapping("{userId}")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> findUserById(@NotNull @PathVariable Long userId) {
+        log.info("GET /users - получение пользователя по id.");
+        return client.getUser(userId);
+    }
+
+    @PatchMapping("{userId}")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> updateUser(@NotNull @PathVariable Long userId,
+                                                             @RequestBody Mono<CreateUserDto> userDto) {
+        log.info("PATCH /users - обновление пользователя.");
+        return userDto.flatMap(dto -> client.updateUser(userId, dto));
+    }
+
+    @DeleteMapping("{userId}")
+    public Mono<Void> deleteUser(@NotNull @PathVariable Long userId) {
+        log.info("DELETE /users - удаление пользователя.");
+        return client.deleteUser(userId);
+    }
+}
@@ -0,0 +1,60 @@
+package ru.practicum.shareit.user;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.DownstreamGuards;
+import ru.practicum.shareit.user.dto.CreateUserDto;
+
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class RemoteUserClient extends BaseClient implements UserClient {
+
+    private static final String API_PREFIX = "/users";
+
+    @Autowired
+    public RemoteUserClient(
+            @Value("${shareit-server.url}") String serverUrl,
+            RestTemplateBuilder builder,
+            DownstreamGuards guards
+    ) {
+        super(
+                builder
+                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
+                        .build(),
+                null,
+                guards.forGroup("users")
+
+        );
+    }
+
+    @Override
+    public ResponseEntity<Object> registerUser(CreateUserDto dto) {
+        return post("", null, null, dto);
+    }
+
+    @Override
+    public ResponseEntity<Object> updateUser(long userId, CreateUserDto dto) {
+        return patch("/" + userId, null, null, dto);
+    }
+
+    @Override
+    public ResponseEntity<Object> getUser(long userId) {
+        return get("/" + userId, userId);
+    }
+
+    @Override
+    public ResponseEntity<Object> findAll() {
+        return get("");
+    }
+
+    @Override
+    public void deleteUser(long userId) {
+        delete("/" + userId, null, null);
+    }
+}
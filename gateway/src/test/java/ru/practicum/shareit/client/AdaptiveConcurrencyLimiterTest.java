@@ -0,0 +1,88 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+class AdaptiveConcurrencyLimiterTest {
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ResilienceProperties.Limiter settings = new ResilienceProperties.Limiter();
+
+    @BeforeEach
+    void setUp() {
+        settings.setInitialLimit(4);
+        settings.setMinLimit(1);
+        settings.setMaxLimit(5);
+        settings.setBackoffRatio(0.5);
+        settings.setSlowCallThreshold(Duration.ofMillis(10));
+    }
+
+    @Test
+    void callsOverLimitAreRejectedTest() {
+        settings.setInitialLimit(2);
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(settings, registry);
+
+        Assertions.assertThat(limiter.tryAcquire()).isTrue();
+        Assertions.assertThat(limiter.tryAcquire()).isTrue();
+        Assertions.assertThat(limiter.tryAcquire()).isFalse();
+        limiter.release();
+
+        Assertions.assertThat(limiter.tryAcquire()).isTrue();
+        Assertions.assertThat(limiter.getInFlight()).isEqualTo(2);
+        Assertions.assertThat(registry.get("gateway.limiter.rejected").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void failureDecreasesLimitOncePerGenerationTest() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(settings, registry);
+        long startNanos = System.nanoTime();
+
+        limiter.onSample(startNanos, true);
+        // вызовы, начатые до уменьшения, его уже не повторяют
+        limiter.onSample(startNanos, true);
+        Assertions.assertThat(limiter.getLimit()).isEqualTo(2);
+
+        limiter.onSample(System.nanoTime(), true);
+        limiter.onSample(System.nanoTime(), true);
+        Assertions.assertThat(limiter.getLimit()).isEqualTo(1);
+    }
+
+    @Test
+    void slowCallDecreasesLimitTest() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(settings, registry);
+        long startNanos = System.nanoTime();
+
+        Thread.sleep(20);
+        limiter.onSample(startNanos, false);
+
+        Assertions.assertThat(limiter.getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    void limitGrowsOnlyWhileUsedTest() {
+        settings.setInitialLimit(2);
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(settings, registry);
+
+        for (int i = 0; i < 10; i++) {
+            limiter.onSample(System.nanoTime(), false);
+        }
+        Assertions.assertThat(limiter.getLimit()).isEqualTo(2);
+
+        // два вызова в работе: предел растет, пока занята хотя бы половина
+        limiter.tryAcquire();
+        limiter.tryAcquire();
+        for (int i = 0; i < 100; i++) {
+            limiter.onSample(System.nanoTime(), false);
+        }
+        Assertions.assertThat(limiter.getLimit()).isEqualTo(4);
+
+        limiter.tryAcquire();
+        for (int i = 0; i < 100; i++) {
+            limiter.onSample(System.nanoTime(), false);
+        }
+        Assertions.assertThat(limiter.getLimit()).isEqualTo(settings.getMaxLimit());
+    }
+}
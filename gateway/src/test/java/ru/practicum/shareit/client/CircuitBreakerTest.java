@@ -0,0 +1,73 @@
+package ru.practicum.shareit.client;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+class CircuitBreakerTest {
+
+    @Test
+    void opensAfterConsecutiveFailuresTest() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(3, Duration.ofMinutes(1));
+
+        circuitBreaker.onFailure();
+        circuitBreaker.onFailure();
+        Assertions.assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        Assertions.assertThat(circuitBreaker.tryAcquirePermission()).isTrue();
+
+        circuitBreaker.onFailure();
+
+        Assertions.assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        Assertions.assertThat(circuitBreaker.tryAcquirePermission()).isFalse();
+    }
+
+    @Test
+    void successResetsFailureCountTest() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(2, Duration.ofMinutes(1));
+
+        circuitBreaker.onFailure();
+        circuitBreaker.onSuccess();
+        circuitBreaker.onFailure();
+
+        Assertions.assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void halfOpenAllowsSingleTrialThatClosesBreakerTest() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(1, Duration.ZERO);
+        circuitBreaker.onFailure();
+
+        Assertions.assertThat(circuitBreaker.tryAcquirePermission()).isTrue();
+        Assertions.assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        // пока идет пробный вызов, остальные отклоняются
+        Assertions.assertThat(circuitBreaker.tryAcquirePermission()).isFalse();
+
+        circuitBreaker.onSuccess();
+
+        Assertions.assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        Assertions.assertThat(circuitBreaker.tryAcquirePermission()).isTrue();
+    }
+
+    @Test
+    void failedTrialOpensBreakerAgainTest() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(5, Duration.ofMillis(50));
+        for (int i = 0; i < 5; i++) {
+            circuitBreaker.onFailure();
+        }
+        Assertions.assertThat(circuitBreaker.tryAcquirePermission()).isFalse();
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        boolean permitted = false;
+        while (!permitted && System.nanoTime() < deadline) {
+            permitted = circuitBreaker.tryAcquirePermission();
+        }
+        Assertions.assertThat(permitted).isTrue();
+
+        // в HALF_OPEN достаточно одной ошибки, чтобы снова разомкнуть
+        circuitBreaker.onFailure();
+
+        Assertions.assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        Assertions.assertThat(circuitBreaker.tryAcquirePermission()).isFalse();
+    }
+}
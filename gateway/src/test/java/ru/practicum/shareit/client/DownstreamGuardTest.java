@@ -0,0 +1,274 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import ru.practicum.shareit.exeption.ServiceUnavailableException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class DownstreamGuardTest {
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ResilienceProperties.Group settings = ResilienceProperties.Group.defaults();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicInteger calls = new AtomicInteger();
+    private DownstreamGuard guard;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+        if (guard != null) {
+            guard.shutdown();
+        }
+    }
+
+    @Test
+    void connectionFailureIsRetriedTest() {
+        settings.setRetryBackoff(Duration.ofMillis(1));
+        guard = guard(new RetryBudget(0.1, 10));
+
+        String result = guard.executeIdempotent(() -> {
+            if (calls.incrementAndGet() < 3) {
+                throw connectionRefused();
+            }
+            return "ответ";
+        }, value -> false);
+
+        Assertions.assertThat(result).isEqualTo("ответ");
+        Assertions.assertThat(calls).hasValue(3);
+        Assertions.assertThat(registry.get("gateway.retries").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void readTimeoutIsNotRetriedTest() {
+        guard = guard(new RetryBudget(0.1, 10));
+
+        Assertions.assertThatThrownBy(() -> guard.executeIdempotent(() -> {
+            calls.incrementAndGet();
+            throw new ResourceAccessException("таймаут", new SocketTimeoutException());
+        }, value -> false)).isInstanceOf(ResourceAccessException.class);
+
+        Assertions.assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void nonIdempotentCallIsNotRetriedTest() {
+        guard = guard(new RetryBudget(0.1, 10));
+
+        Assertions.assertThatThrownBy(() -> guard.execute(() -> {
+            calls.incrementAndGet();
+            throw connectionRefused();
+        }, value -> false)).isInstanceOf(ResourceAccessException.class);
+
+        Assertions.assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void retriesStopWhenBudgetIsExhaustedTest() {
+        settings.setMaxRetries(5);
+        settings.setRetryBackoff(Duration.ofMillis(1));
+        // бюджет на один повтор и без пополнения
+        guard = guard(new RetryBudget(0, 0));
+
+        Assertions.assertThatThrownBy(() -> guard.executeIdempotent(() -> {
+            calls.incrementAndGet();
+            throw connectionRefused();
+        }, value -> false)).isInstanceOf(ResourceAccessException.class);
+
+        Assertions.assertThat(calls).hasValue(2);
+        Assertions.assertThat(registry.get("gateway.retry.budget.exhausted").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void slowCallIsHedgedTest() {
+        settings.setHedgeEnabled(true);
+        settings.setHedgeMinDelay(Duration.ofMillis(20));
+        guard = guard(new RetryBudget(0.1, 10));
+
+        String result = guard.executeIdempotent(() -> {
+            if (calls.incrementAndGet() == 1) {
+                await(release);
+                return "медленный";
+            }
+            return "быстрый";
+        }, value -> false);
+
+        Assertions.assertThat(result).isEqualTo("быстрый");
+        Assertions.assertThat(calls).hasValue(2);
+        Assertions.assertThat(registry.get("gateway.hedges").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void fastCallIsNotHedgedTest() {
+        settings.setHedgeEnabled(true);
+        settings.setHedgeMinDelay(Duration.ofSeconds(5));
+        guard = guard(new RetryBudget(0.1, 10));
+
+        String result = guard.executeIdempotent(() -> "ответ " + calls.incrementAndGet(), value -> false);
+
+        Assertions.assertThat(result).isEqualTo("ответ 1");
+        Assertions.assertThat(registry.get("gateway.hedges").counter().count()).isZero();
+    }
+
+    @Test
+    void failedResponseWaitsForHedgeTest() {
+        settings.setHedgeEnabled(true);
+        settings.setHedgeMinDelay(Duration.ofMillis(20));
+        guard = guard(new RetryBudget(0.1, 10));
+        CountDownLatch hedgeStarted = new CountDownLatch(1);
+
+        // первый ответ - ошибка сервера, но пришел после запуска дублирующего запроса
+        String result = guard.executeIdempotent(() -> {
+            if (calls.incrementAndGet() == 1) {
+                await(hedgeStarted);
+                return "ошибка";
+            }
+            hedgeStarted.countDown();
+            sleep(50);
+            return "ответ";
+        }, "ошибка"::equals);
+
+        Assertions.assertThat(result).isEqualTo("ответ");
+    }
+
+    @Test
+    void breakerOpensAfterFailuresTest() {
+        settings.setFailureThreshold(2);
+        guard = guard(new RetryBudget(0.1, 10));
+
+        for (int i = 0; i < 2; i++) {
+            Assertions.assertThat(guard.execute(() -> "ошибка " + calls.incrementAndGet(), value -> true))
+                    .startsWith("ошибка");
+        }
+
+        Assertions.assertThatThrownBy(() -> guard.execute(() -> "ответ " + calls.incrementAndGet(), value -> false))
+                .isInstanceOf(ServiceUnavailableException.class);
+        Assertions.assertThat(calls).hasValue(2);
+        Assertions.assertThat(registry.get("gateway.circuit.rejected").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void clientErrorsDoNotOpenBreakerTest() {
+        settings.setFailureThreshold(1);
+        guard = guard(new RetryBudget(0.1, 10));
+
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertThatThrownBy(() -> guard.execute(() -> {
+                calls.incrementAndGet();
+                throw new HttpClientErrorException(HttpStatus.NOT_FOUND);
+            }, value -> false)).isInstanceOf(HttpClientErrorException.class);
+        }
+
+        Assertions.assertThat(calls).hasValue(3);
+    }
+
+    @Test
+    void bulkheadRejectsCallsOverLimitTest() throws Exception {
+        settings.setMaxConcurrentCalls(1);
+        guard = guard(new RetryBudget(0.1, 10));
+        CountDownLatch started = new CountDownLatch(1);
+        Future<String> blocked = executor.submit(() -> guard.execute(() -> {
+            started.countDown();
+            await(release);
+            return "первый";
+        }, value -> false));
+        Assertions.assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        Assertions.assertThatThrownBy(() -> guard.execute(() -> "второй", value -> false))
+                .isInstanceOf(ServiceUnavailableException.class);
+
+        release.countDown();
+        Assertions.assertThat(blocked.get(5, TimeUnit.SECONDS)).isEqualTo("первый");
+        Assertions.assertThat(guard.execute(() -> "третий", value -> false)).isEqualTo("третий");
+    }
+
+    @Test
+    void longStreamDoesNotShrinkLimitTest() {
+        ResilienceProperties.Limiter limiterSettings = new ResilienceProperties.Limiter();
+        limiterSettings.setSlowCallThreshold(Duration.ofMillis(10));
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(limiterSettings, registry);
+        guard = new DownstreamGuard("items", settings, new RetryBudget(0.1, 10), limiter, registry);
+        int initialLimit = limiter.getLimit();
+
+        guard.executeStream(onResponse -> {
+            onResponse.run();
+            sleep(50);
+            return null;
+        });
+        Assertions.assertThat(limiter.getLimit()).isEqualTo(initialLimit);
+        Assertions.assertThat(limiter.getInFlight()).isZero();
+
+        // обычный вызов той же длительности считается медленным
+        guard.execute(() -> {
+            sleep(50);
+            return "ответ";
+        }, value -> false);
+        Assertions.assertThat(limiter.getLimit()).isLessThan(initialLimit);
+    }
+
+    @Test
+    void clientAbortDuringStreamDoesNotOpenBreakerTest() {
+        settings.setFailureThreshold(1);
+        guard = guard(new RetryBudget(0.1, 10));
+
+        Assertions.assertThatThrownBy(() -> guard.executeStream(onResponse -> {
+            onResponse.run();
+            throw new UncheckedIOException(new IOException("Broken pipe"));
+        })).isInstanceOf(UncheckedIOException.class);
+
+        Assertions.assertThat(guard.execute(() -> "ответ", value -> false)).isEqualTo("ответ");
+    }
+
+    @Test
+    void streamFailureBeforeResponseOpensBreakerTest() {
+        settings.setFailureThreshold(1);
+        guard = guard(new RetryBudget(0.1, 10));
+
+        Assertions.assertThatThrownBy(() -> guard.executeStream(onResponse -> {
+            throw connectionRefused();
+        })).isInstanceOf(ResourceAccessException.class);
+
+        Assertions.assertThatThrownBy(() -> guard.execute(() -> "ответ", value -> false))
+                .isInstanceOf(ServiceUnavailableException.class);
+    }
+
+    private DownstreamGuard guard(RetryBudget retryBudget) {
+        return new DownstreamGuard("items", settings, retryBudget, null, registry);
+    }
+
+    private static ResourceAccessException connectionRefused() {
+        return new ResourceAccessException("соединение отклонено", new ConnectException());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
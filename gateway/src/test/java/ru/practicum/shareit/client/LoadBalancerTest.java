@@ -0,0 +1,138 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.message.BasicStatusLine;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+class LoadBalancerTest {
+    private static final URI FIRST = URI.create("http://server-1:9090");
+    private static final URI SECOND = URI.create("http://server-2:9090");
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final CloseableHttpClient httpClient = Mockito.mock(CloseableHttpClient.class);
+    private final LoadBalancerProperties properties = new LoadBalancerProperties();
+    private LoadBalancer loadBalancer;
+
+    @AfterEach
+    void tearDown() {
+        if (loadBalancer != null) {
+            loadBalancer.destroy();
+        }
+    }
+
+    @Test
+    void lessLoadedInstanceIsChosenTest() throws Exception {
+        loadBalancer = loadBalancer(Set.of());
+        ServerInstance busy = instance(FIRST);
+        busy.onStart();
+        busy.onStart();
+
+        for (int i = 0; i < 20; i++) {
+            Assertions.assertThat(loadBalancer.choose().getBaseUri()).isEqualTo(SECOND);
+        }
+    }
+
+    @Test
+    void instanceIsEjectedAfterConsecutiveFailuresTest() throws Exception {
+        properties.setFailureThreshold(2);
+        loadBalancer = loadBalancer(Set.of());
+        ServerInstance failing = instance(FIRST);
+
+        loadBalancer.onResult(failing, true);
+        loadBalancer.onResult(failing, false);
+        loadBalancer.onResult(failing, true);
+        Assertions.assertThat(chosen()).containsExactlyInAnyOrder(FIRST, SECOND);
+
+        loadBalancer.onResult(failing, true);
+
+        Assertions.assertThat(chosen()).containsExactly(SECOND);
+        Assertions.assertThat(registry.get("gateway.lb.ejections").tag("instance", FIRST.toString())
+                .counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void ejectedInstanceReturnsAfterEjectionDurationTest() throws Exception {
+        properties.setFailureThreshold(1);
+        properties.setEjectionDuration(Duration.ofMillis(50));
+        loadBalancer = loadBalancer(Set.of());
+
+        loadBalancer.onResult(instance(FIRST), true);
+        Assertions.assertThat(chosen()).containsExactly(SECOND);
+
+        TimeUnit.MILLISECONDS.sleep(100);
+        Assertions.assertThat(chosen()).containsExactlyInAnyOrder(FIRST, SECOND);
+    }
+
+    @Test
+    void allInstancesAreUsedWhenAllEjectedTest() throws Exception {
+        properties.setFailureThreshold(1);
+        loadBalancer = loadBalancer(Set.of());
+
+        loadBalancer.onResult(instance(FIRST), true);
+        loadBalancer.onResult(instance(SECOND), true);
+
+        Assertions.assertThat(chosen()).containsExactlyInAnyOrder(FIRST, SECOND);
+    }
+
+    @Test
+    void unhealthyInstanceIsNotChosenTest() throws Exception {
+        loadBalancer = loadBalancer(Set.of("server-1"));
+        ServerInstance unhealthy = instance(FIRST);
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (unhealthy.isHealthy() && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+
+        Assertions.assertThat(chosen()).containsExactly(SECOND);
+    }
+
+    // проверка здоровья отвечает 503 для хостов из unhealthyHosts и 200 для остальных
+    private LoadBalancer loadBalancer(Set<String> unhealthyHosts) throws Exception {
+        when(httpClient.execute(any(HttpUriRequest.class))).thenAnswer(invocation -> {
+            HttpUriRequest request = invocation.getArgument(0);
+            int status = unhealthyHosts.contains(request.getURI().getHost()) ? 503 : 200;
+            CloseableHttpResponse response = Mockito.mock(CloseableHttpResponse.class);
+            when(response.getStatusLine()).thenReturn(new BasicStatusLine(HttpVersion.HTTP_1_1, status, null));
+            return response;
+        });
+        properties.setInstances(List.of(FIRST, SECOND));
+        properties.setHealthCheckInterval(Duration.ofHours(1));
+        return new LoadBalancer(properties, httpClient, registry);
+    }
+
+    private ServerInstance instance(URI baseUri) {
+        for (int i = 0; i < 100; i++) {
+            ServerInstance instance = loadBalancer.choose();
+            if (instance.getBaseUri().equals(baseUri)) {
+                return instance;
+            }
+        }
+        throw new AssertionError("Экземпляр " + baseUri + " не выбран");
+    }
+
+    private Set<URI> chosen() {
+        Set<URI> chosen = new HashSet<>();
+        for (int i = 0; i < 100; i++) {
+            chosen.add(loadBalancer.choose().getBaseUri());
+        }
+        return chosen;
+    }
+}
@@ -0,0 +1,92 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.message.BasicStatusLine;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+class LoadBalancingInterceptorTest {
+    private static final URI SERVER = URI.create("http://server-1:9090");
+
+    private final MockClientHttpRequest request = new MockClientHttpRequest(HttpMethod.GET,
+            URI.create("http://localhost:9090/items/search?text=drill"));
+    private LoadBalancer loadBalancer;
+    private LoadBalancingInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        CloseableHttpResponse healthy = Mockito.mock(CloseableHttpResponse.class);
+        when(healthy.getStatusLine()).thenReturn(new BasicStatusLine(HttpVersion.HTTP_1_1, 200, null));
+        CloseableHttpClient httpClient = Mockito.mock(CloseableHttpClient.class);
+        when(httpClient.execute(any(HttpUriRequest.class))).thenReturn(healthy);
+        LoadBalancerProperties properties = new LoadBalancerProperties();
+        properties.setInstances(List.of(SERVER));
+        properties.setHealthCheckInterval(Duration.ofHours(1));
+        properties.setFailureThreshold(1);
+        loadBalancer = new LoadBalancer(properties, httpClient, new SimpleMeterRegistry());
+        interceptor = new LoadBalancingInterceptor(loadBalancer);
+    }
+
+    @AfterEach
+    void tearDown() {
+        loadBalancer.destroy();
+    }
+
+    @Test
+    void requestIsSentToChosenInstanceTest() throws Exception {
+        ClientHttpResponse response = interceptor.intercept(request, new byte[0], (sent, body) -> {
+            Assertions.assertThat(sent.getURI()).isEqualTo(URI.create("http://server-1:9090/items/search?text=drill"));
+            return new MockClientHttpResponse(new byte[0], HttpStatus.OK);
+        });
+
+        Assertions.assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        response.close();
+    }
+
+    @Test
+    void requestIsOutstandingUntilResponseIsClosedTest() throws Exception {
+        ServerInstance instance = loadBalancer.choose();
+
+        ClientHttpResponse response = interceptor.intercept(request, new byte[0],
+                (sent, body) -> new MockClientHttpResponse("{}".getBytes(), HttpStatus.OK));
+
+        // тело потокового ответа еще читается
+        Assertions.assertThat(instance.getOutstanding()).isEqualTo(1);
+        response.close();
+        Assertions.assertThat(instance.getOutstanding()).isZero();
+        response.close();
+        Assertions.assertThat(instance.getOutstanding()).isZero();
+    }
+
+    @Test
+    void failedRequestIsReleasedAndCountedTest() {
+        ServerInstance instance = loadBalancer.choose();
+
+        Assertions.assertThatThrownBy(() -> interceptor.intercept(request, new byte[0], (sent, body) -> {
+            throw new IOException("Connection refused");
+        })).isInstanceOf(IOException.class);
+
+        Assertions.assertThat(instance.getOutstanding()).isZero();
+        Assertions.assertThat(instance.isAvailable(System.nanoTime())).isFalse();
+    }
+}
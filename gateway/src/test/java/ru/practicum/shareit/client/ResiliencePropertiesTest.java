@@ -0,0 +1,44 @@
+package ru.practicum.shareit.client;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+
+import java.time.Duration;
+import java.util.Map;
+
+class ResiliencePropertiesTest {
+
+    @Test
+    void groupOverrideKeepsConfiguredDefaultsTest() {
+        ResilienceProperties properties = bind(Map.of(
+                "shareit.resilience.defaults.max-concurrent-calls", "20",
+                "shareit.resilience.defaults.open-duration", "3s",
+                "shareit.resilience.groups.bookings.hedge-enabled", "true"));
+
+        ResilienceProperties.Group bookings = properties.forGroup("bookings");
+
+        Assertions.assertThat(bookings.getHedgeEnabled()).isTrue();
+        Assertions.assertThat(bookings.getMaxConcurrentCalls()).isEqualTo(20);
+        Assertions.assertThat(bookings.getOpenDuration()).isEqualTo(Duration.ofSeconds(3));
+        // не заданное ни в defaults, ни в группе берется из встроенных значений
+        Assertions.assertThat(bookings.getMaxRetries()).isEqualTo(2);
+        Assertions.assertThat(properties.getDefaults().getHedgeEnabled()).isFalse();
+    }
+
+    @Test
+    void groupWithoutOverrideUsesDefaultsTest() {
+        ResilienceProperties properties = bind(Map.of(
+                "shareit.resilience.defaults.failure-threshold", "7",
+                "shareit.resilience.groups.items.failure-threshold", "3"));
+
+        Assertions.assertThat(properties.forGroup("users").getFailureThreshold()).isEqualTo(7);
+        Assertions.assertThat(properties.forGroup("items").getFailureThreshold()).isEqualTo(3);
+    }
+
+    private static ResilienceProperties bind(Map<String, String> properties) {
+        return new Binder(new MapConfigurationPropertySource(properties))
+                .bindOrCreate("shareit.resilience", ResilienceProperties.class);
+    }
+}
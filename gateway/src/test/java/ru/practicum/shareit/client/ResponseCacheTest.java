@@ -0,0 +1,85 @@
+package ru.practicum.shareit.client;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class ResponseCacheTest {
+
+    private final ResponseCache responseCache = new ResponseCache(new ResponseCacheProperties());
+
+    @Test
+    void successfulResponseIsLoadedOnceTest() {
+        AtomicInteger calls = new AtomicInteger();
+        URI uri = URI.create("/items/search?text=дрель");
+
+        ResponseEntity<Object> first = responseCache.get(uri, null, () -> ok(calls));
+        ResponseEntity<Object> second = responseCache.get(uri, null, () -> ok(calls));
+
+        Assertions.assertThat(second).isSameAs(first);
+        Assertions.assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void usersAndQueriesHaveSeparateEntriesTest() {
+        AtomicInteger calls = new AtomicInteger();
+
+        responseCache.get(URI.create("/requests/1"), 1L, () -> ok(calls));
+        responseCache.get(URI.create("/requests/1"), 2L, () -> ok(calls));
+        responseCache.get(URI.create("/items/search?text=a"), null, () -> ok(calls));
+        responseCache.get(URI.create("/items/search?text=b"), null, () -> ok(calls));
+
+        Assertions.assertThat(calls).hasValue(4);
+    }
+
+    @Test
+    void errorResponseIsNotCachedTest() {
+        AtomicInteger calls = new AtomicInteger();
+        URI uri = URI.create("/requests/99");
+
+        responseCache.get(uri, 1L, () -> {
+            calls.incrementAndGet();
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        });
+        responseCache.get(uri, 1L, () -> ok(calls));
+
+        Assertions.assertThat(calls).hasValue(2);
+    }
+
+    @Test
+    void evictRemovesOnlyMatchingPathsTest() {
+        AtomicInteger calls = new AtomicInteger();
+        responseCache.get(URI.create("/items/search?text=a"), null, () -> ok(calls));
+        responseCache.get(URI.create("/requests/1"), 1L, () -> ok(calls));
+
+        responseCache.evict(path -> path.equals("/items/search"));
+        responseCache.get(URI.create("/items/search?text=a"), null, () -> ok(calls));
+        responseCache.get(URI.create("/requests/1"), 1L, () -> ok(calls));
+
+        Assertions.assertThat(calls).hasValue(3);
+    }
+
+    @Test
+    void responseLoadedBeforeEvictionIsNotStoredTest() {
+        AtomicInteger calls = new AtomicInteger();
+        URI uri = URI.create("/requests/1");
+
+        // данные меняются, пока ответ еще идет от сервера
+        responseCache.get(uri, 1L, () -> {
+            ResponseEntity<Object> response = ok(calls);
+            responseCache.evict(path -> path.startsWith("/requests/"));
+            return response;
+        });
+        responseCache.get(uri, 1L, () -> ok(calls));
+
+        Assertions.assertThat(calls).hasValue(2);
+    }
+
+    private static ResponseEntity<Object> ok(AtomicInteger calls) {
+        return ResponseEntity.ok("ответ " + calls.incrementAndGet());
+    }
+}
@@ -0,0 +1,52 @@
+package ru.practicum.shareit.client;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class RetryBudgetTest {
+
+    @Test
+    void budgetStartsFullAndIsSpentByRetriesTest() {
+        RetryBudget retryBudget = new RetryBudget(0.5, 0);
+
+        Assertions.assertThat(retryBudget.tryWithdraw()).isTrue();
+        Assertions.assertThat(retryBudget.tryWithdraw()).isFalse();
+    }
+
+    @Test
+    void requestsEarnRatioOfTokenTest() {
+        RetryBudget retryBudget = new RetryBudget(0.5, 0);
+        retryBudget.tryWithdraw();
+
+        retryBudget.onRequest();
+        Assertions.assertThat(retryBudget.tryWithdraw()).isFalse();
+        retryBudget.onRequest();
+        Assertions.assertThat(retryBudget.tryWithdraw()).isTrue();
+        Assertions.assertThat(retryBudget.tryWithdraw()).isFalse();
+    }
+
+    @Test
+    void balanceIsCappedTest() {
+        RetryBudget retryBudget = new RetryBudget(1, 0);
+
+        // простой без повторов не копит бюджет на всплеск повторов
+        for (int i = 0; i < 100; i++) {
+            retryBudget.onRequest();
+        }
+
+        Assertions.assertThat(retryBudget.tryWithdraw()).isTrue();
+        Assertions.assertThat(retryBudget.tryWithdraw()).isFalse();
+    }
+
+    @Test
+    void budgetRefillsOverTimeTest() throws Exception {
+        RetryBudget retryBudget = new RetryBudget(0, 100);
+        for (int i = 0; i < 100; i++) {
+            retryBudget.tryWithdraw();
+        }
+
+        Thread.sleep(50);
+
+        Assertions.assertThat(retryBudget.tryWithdraw()).isTrue();
+    }
+}
@@ -0,0 +1,121 @@
+package ru.practicum.shareit.client;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+class SingleFlightTest {
+    private static final int WAITERS = 4;
+
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+    private final ExecutorService executor = Executors.newFixedThreadPool(WAITERS + 1);
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentCallsShareOneExecutionTest() throws Exception {
+        List<Future<String>> results = startConcurrentCalls("/items/1", () -> "вещь " + calls.get());
+
+        release.countDown();
+
+        for (Future<String> result : results) {
+            Assertions.assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("вещь 1");
+        }
+        Assertions.assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void failureIsSharedWithWaitingCallsTest() throws Exception {
+        IllegalStateException failure = new IllegalStateException("сервер недоступен");
+        List<Future<String>> results = startConcurrentCalls("/items/1", () -> {
+            throw failure;
+        });
+
+        release.countDown();
+
+        for (Future<String> result : results) {
+            Assertions.assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+                    .hasCause(failure);
+        }
+        Assertions.assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void finishedCallIsNotReusedTest() {
+        Assertions.assertThat(singleFlight.execute("/items/1", () -> "первый")).isEqualTo("первый");
+        Assertions.assertThat(singleFlight.execute("/items/1", () -> "второй")).isEqualTo("второй");
+    }
+
+    @Test
+    void differentKeysAreNotCoalescedTest() throws Exception {
+        Future<String> blocked = executor.submit(() -> singleFlight.execute("/items/1", () -> {
+            started.countDown();
+            await(release);
+            return "первый";
+        }));
+        Assertions.assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        Assertions.assertThat(singleFlight.execute("/items/2", () -> "второй")).isEqualTo("второй");
+
+        release.countDown();
+        Assertions.assertThat(blocked.get(5, TimeUnit.SECONDS)).isEqualTo("первый");
+    }
+
+    // первый вызов держится, пока остальные WAITERS вызовов не встанут в ожидание его результата
+    private List<Future<String>> startConcurrentCalls(String key, Supplier<String> result) throws Exception {
+        List<Future<String>> results = new ArrayList<>();
+        results.add(executor.submit(() -> singleFlight.execute(key, () -> {
+            calls.incrementAndGet();
+            started.countDown();
+            await(release);
+            return result.get();
+        })));
+        Assertions.assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        List<Thread> waiters = new CopyOnWriteArrayList<>();
+        CountDownLatch submitted = new CountDownLatch(WAITERS);
+        for (int i = 0; i < WAITERS; i++) {
+            results.add(executor.submit(() -> {
+                waiters.add(Thread.currentThread());
+                submitted.countDown();
+                return singleFlight.execute(key, () -> {
+                    calls.incrementAndGet();
+                    return "лишний вызов";
+                });
+            }));
+        }
+        Assertions.assertThat(submitted.await(5, TimeUnit.SECONDS)).isTrue();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        for (Thread waiter : waiters) {
+            while (waiter.getState() != Thread.State.WAITING && System.nanoTime() < deadline) {
+                Thread.onSpinWait();
+            }
+        }
+        return results;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
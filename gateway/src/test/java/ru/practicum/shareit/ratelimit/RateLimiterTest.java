@@ -0,0 +1,80 @@
+package ru.practicum.shareit.ratelimit;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+
+class RateLimiterTest {
+
+    @Test
+    void groupOverridesAreMergedOntoDefaultsTest() {
+        RateLimitProperties properties = bind(Map.of(
+                "shareit.rate-limit.defaults.capacity", "10",
+                "shareit.rate-limit.defaults.refill-per-second", "5",
+                "shareit.rate-limit.groups.bookings.capacity", "3",
+                "shareit.rate-limit.groups.search.refill-per-second", "1"));
+
+        Assertions.assertThat(properties.forGroup(RouteGroup.BOOKINGS))
+                .extracting(RateLimitProperties.Limit::getCapacity, RateLimitProperties.Limit::getRefillPerSecond)
+                .containsExactly(3L, 5.0);
+        Assertions.assertThat(properties.forGroup(RouteGroup.SEARCH))
+                .extracting(RateLimitProperties.Limit::getCapacity, RateLimitProperties.Limit::getRefillPerSecond)
+                .containsExactly(10L, 1.0);
+        Assertions.assertThat(properties.forGroup(RouteGroup.ITEMS))
+                .extracting(RateLimitProperties.Limit::getCapacity, RateLimitProperties.Limit::getRefillPerSecond)
+                .containsExactly(10L, 5.0);
+    }
+
+    @Test
+    void requestsOverGroupLimitAreRejectedPerClientTest() {
+        RateLimiter rateLimiter = new RateLimiter(bind(Map.of(
+                "shareit.rate-limit.defaults.capacity", "5",
+                "shareit.rate-limit.defaults.refill-per-second", "0.001",
+                "shareit.rate-limit.groups.bookings.capacity", "2")));
+
+        Assertions.assertThat(rateLimiter.tryAcquire("/bookings", "1")).isEmpty();
+        Assertions.assertThat(rateLimiter.tryAcquire("/bookings/owner", "1")).isEmpty();
+        Optional<Duration> retryAfter = rateLimiter.tryAcquire("/bookings/1", "1");
+
+        Assertions.assertThat(retryAfter).isPresent();
+        Assertions.assertThat(RateLimiter.retryAfterSeconds(retryAfter.get())).isPositive();
+        // у другого клиента и у другой группы свои корзины, группа без переопределения получает defaults
+        Assertions.assertThat(rateLimiter.tryAcquire("/bookings", "2")).isEmpty();
+        for (int i = 0; i < 5; i++) {
+            Assertions.assertThat(rateLimiter.tryAcquire("/items/1", "1")).isEmpty();
+        }
+        Assertions.assertThat(rateLimiter.tryAcquire("/items/1", "1")).isPresent();
+    }
+
+    @Test
+    void unlimitedPathsAndDisabledLimiterPassTest() {
+        RateLimiter disabled = new RateLimiter(bind(Map.of(
+                "shareit.rate-limit.enabled", "false",
+                "shareit.rate-limit.defaults.capacity", "1")));
+        RateLimiter limiter = new RateLimiter(bind(Map.of(
+                "shareit.rate-limit.defaults.capacity", "1",
+                "shareit.rate-limit.defaults.refill-per-second", "0.001")));
+
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertThat(disabled.tryAcquire("/items", "1")).isEmpty();
+            Assertions.assertThat(limiter.tryAcquire("/users", "1")).isEmpty();
+        }
+    }
+
+    @Test
+    void retryAfterIsRoundedUpToSecondsTest() {
+        Assertions.assertThat(RateLimiter.retryAfterSeconds(Duration.ofMillis(1))).isEqualTo(1);
+        Assertions.assertThat(RateLimiter.retryAfterSeconds(Duration.ofMillis(1001))).isEqualTo(2);
+        Assertions.assertThat(RateLimiter.retryAfterSeconds(Duration.ZERO)).isEqualTo(1);
+    }
+
+    private static RateLimitProperties bind(Map<String, String> properties) {
+        return new Binder(new MapConfigurationPropertySource(properties))
+                .bindOrCreate("shareit.rate-limit", RateLimitProperties.class);
+    }
+}
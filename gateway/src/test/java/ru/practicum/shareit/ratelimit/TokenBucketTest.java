@@ -0,0 +1,80 @@
+package ru.practicum.shareit.ratelimit;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+class TokenBucketTest {
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void burstUpToCapacityThenWaitTest() {
+        TokenBucket bucket = new TokenBucket(3, 2, 0);
+
+        Assertions.assertThat(bucket.tryAcquire(0)).isZero();
+        Assertions.assertThat(bucket.tryAcquire(0)).isZero();
+        Assertions.assertThat(bucket.tryAcquire(0)).isZero();
+        // два токена в секунду - следующий через полсекунды
+        Assertions.assertThat(bucket.tryAcquire(0)).isEqualTo(SECOND / 2);
+    }
+
+    @Test
+    void tokensRefillOverTimeUpToCapacityTest() {
+        TokenBucket bucket = new TokenBucket(2, 2, 0);
+        bucket.tryAcquire(0);
+        bucket.tryAcquire(0);
+
+        Assertions.assertThat(bucket.tryAcquire(SECOND / 2)).isZero();
+        Assertions.assertThat(bucket.tryAcquire(SECOND / 2)).isPositive();
+
+        // за долгий простой корзина наполняется только до capacity
+        long later = 100 * SECOND;
+        Assertions.assertThat(bucket.tryAcquire(later)).isZero();
+        Assertions.assertThat(bucket.tryAcquire(later)).isZero();
+        Assertions.assertThat(bucket.tryAcquire(later)).isPositive();
+    }
+
+    @Test
+    void earlierTimestampDoesNotAddTokensTest() {
+        TokenBucket bucket = new TokenBucket(1, 1, SECOND);
+        bucket.tryAcquire(SECOND);
+
+        // время из другого потока может оказаться чуть раньше уже записанного
+        Assertions.assertThat(bucket.tryAcquire(0)).isEqualTo(SECOND);
+    }
+
+    @Test
+    void concurrentAcquiresNeverExceedCapacityTest() throws Exception {
+        int capacity = 1000;
+        TokenBucket bucket = new TokenBucket(capacity, 0.001, 0);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                results.add(executor.submit(() -> {
+                    int acquired = 0;
+                    for (int j = 0; j < capacity; j++) {
+                        if (bucket.tryAcquire(0) == 0) {
+                            acquired++;
+                        }
+                    }
+                    return acquired;
+                }));
+            }
+            int total = 0;
+            for (Future<Integer> result : results) {
+                total += result.get(30, TimeUnit.SECONDS);
+            }
+
+            Assertions.assertThat(total).isEqualTo(capacity);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -1,9 +0,0 @@
-package ru.practicum.shareit;
-
-import java.time.format.DateTimeFormatter;
-
-public class Constants {
-    public static final String PAGE_SIZE_STRING = "20";
-    public static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter
-            .ofPattern("yyyy-MM-dd'T'HH:mm:ss");
-}
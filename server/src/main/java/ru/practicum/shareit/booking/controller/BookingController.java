@@ -2,11 +2,15 @@ package ru.practicum.shareit.booking.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.Constants;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingOutDto;
+import ru.practicum.shareit.booking.dto.BookingPage;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.web.Responses;
 
 import java.util.List;
 
@@ -35,10 +39,12 @@ public class BookingController {
     }
 
     @GetMapping("{bookingId}")
-    public BookingOutDto findBookingById(@RequestHeader(name = "X-Sharer-User-Id") Long userId,
-                                         @PathVariable Long bookingId) {
+    public ResponseEntity<BookingOutDto> findBookingById(@RequestHeader(name = "X-Sharer-User-Id") Long userId,
+                                                         @PathVariable Long bookingId,
+                                                         WebRequest webRequest) {
         log.info("GET /bookings/{bookingId} - получение бронирования по идентификатору");
-        return bookingService.findBookingById(userId, bookingId);
+        return Responses.conditional(webRequest, bookingService.getBookingETag(userId, bookingId),
+                () -> bookingService.findBookingById(userId, bookingId));
     }
 
     @GetMapping
@@ -60,4 +66,28 @@ public class BookingController {
         log.info("GET /bookings / owner - получение бронирований пользователя по параметру");
         return bookingService.findAllBookingByOwnerAndState(ownerId, state, from, size);
     }
+
+    @GetMapping(params = "cursor")
+    public ResponseEntity<List<BookingOutDto>> findBookingPageByUserAndState(@RequestHeader(name = "X-Sharer-User-Id") Long userId,
+                                                                             @RequestParam(name = "state", required = false, defaultValue = "ALL")
+                                                                             String state,
+                                                                             @RequestParam String cursor,
+                                                                             @RequestParam(defaultValue = Constants.PAGE_SIZE_STRING) Integer size) {
+        log.info("GET /bookings - получение бронирований пользователя по курсору");
+        return pageToResponse(bookingService.findBookingPageByUserAndState(userId, state, cursor, size));
+    }
+
+    @GetMapping(path = "/owner", params = "cursor")
+    public ResponseEntity<List<BookingOutDto>> findBookingPageByOwnerAndState(@RequestHeader(name = "X-Sharer-User-Id") Long ownerId,
+                                                                              @RequestParam(name = "state", required = false, defaultValue = "ALL")
+                                                                              String state,
+                                                                              @RequestParam String cursor,
+                                                                              @RequestParam(defaultValue = Constants.PAGE_SIZE_STRING) Integer size) {
+        log.info("GET /bookings / owner - получение бронирований владельца по курсору");
+        return pageToResponse(bookingService.findBookingPageByOwnerAndState(ownerId, state, cursor, size));
+    }
+
+    private static ResponseEntity<List<BookingOutDto>> pageToResponse(BookingPage page) {
+        return Responses.page(page.getBookings(), page.getNextCursor());
+    }
 }
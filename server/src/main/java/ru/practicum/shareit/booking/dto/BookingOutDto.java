@@ -18,6 +18,11 @@ public class BookingOutDto {
     private Item item;
     private Booker booker;
 
+    public BookingOutDto(Long id, LocalDateTime start, LocalDateTime end, Status status,
+                         Long itemId, String itemName, Long bookerId, String bookerName) {
+        this(id, start, end, status, new Item(itemId, itemName), new Booker(bookerId, bookerName));
+    }
+
     @Data
     public static class Booker {
         private final long id;
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.booking.model.Status;
+
+@Getter
+@AllArgsConstructor
+public class BookingVersion {
+    private Long bookerId;
+    private Long ownerId;
+    private Status status;
+    private Long itemVersion;
+    private Long bookerVersion;
+}
@@ -1,107 +1,73 @@
 package ru.practicum.shareit.booking.repository;
 
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import ru.practicum.shareit.booking.dto.BookingVersion;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
 
+import javax.persistence.QueryHint;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingSearchRepository {
 
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true"))
     @Query("SELECT b FROM Booking as b " +
-            " JOIN Item as i ON b.item.id = i.id " +
+            " JOIN FETCH b.item as i " +
+            " JOIN FETCH i.owner " +
+            " LEFT JOIN FETCH i.request " +
+            " JOIN FETCH b.booker " +
+            " WHERE b.id = :bookingId ")
+    Optional<Booking> findWithItemAndBookerById(Long bookingId);
+
+    @Query("SELECT new ru.practicum.shareit.booking.dto.BookingVersion(u.id, i.owner.id, b.status, i.version, u.version) " +
+            " FROM Booking as b " +
+            " JOIN b.item as i " +
+            " JOIN b.booker as u " +
+            " WHERE b.id = :bookingId ")
+    Optional<BookingVersion> findVersionById(Long bookingId);
+
+    @Modifying
+    @Query("UPDATE Booking as b " +
+            " SET b.status = :status " +
             " WHERE b.id = :bookingId " +
-            " AND ( i.owner.id = :userId OR b.booker.id = :userId )")
-    Optional<Booking> findByIdAndBookerOrOwner(Long bookingId, Long userId);
+            " AND b.status = ru.practicum.shareit.booking.model.Status.WAITING ")
+    int updateStatusIfWaiting(Long bookingId, Status status);
 
-    @Query("SELECT b FROM Booking as b " +
-            " WHERE b.booker.id = :userId " +
-            " AND b.status = ru.practicum.shareit.booking.model.Status.REJECTED " +
-            " ORDER BY b.start DESC ")
-    List<Booking> findAllByBookerIdAndStatusRejectedOrderByStartDesc(Pageable pageable, Long userId);
-
-    @Query("SELECT b FROM Booking as b " +
-            " WHERE b.booker.id = :userId " +
-            " AND b.status = ru.practicum.shareit.booking.model.Status.WAITING " +
-            " ORDER BY b.start DESC ")
-    List<Booking> findAllByBookerIdAndStatusWaitingOrderByStartDesc(Pageable pageable, Long userId);
-
-    @Query("SELECT b FROM Booking as b " +
-            " WHERE b.booker.id = :userId" +
-            " AND b.start <= :dateTime " +
-            " AND b.end >= :dateTime ")
-    List<Booking> findAllByBookerIdByDateIntoPeriodOrderByStartDesc(Pageable pageable, Long userId, LocalDateTime dateTime);
-
-    List<Booking> findAllByBookerIdAndStartIsAfterOrderByStartDesc(Pageable pageable, Long userId, LocalDateTime dateTime);
-
-    List<Booking> findAllByBookerIdAndEndIsBeforeOrderByStartDesc(Pageable pageable, Long userId, LocalDateTime dateTime);
-
-    List<Booking> findAllByBookerIdOrderByStartDesc(Pageable pageable, Long userId);
-
-    @Query("SELECT b FROM Booking as b " +
-            " JOIN Item as i ON b.item.id = i.id" +
-            " WHERE i.owner.id = :ownerId " +
-            " ORDER BY b.start DESC "
-    )
-    List<Booking> findAllByItemOwnerOrderByStartDesc(Pageable pageable, Long ownerId);
-
-    @Query("SELECT b FROM Booking as b " +
-            " JOIN Item as i ON b.item.id = i.id" +
-            " WHERE i.owner.id = :ownerId " +
-            " AND b.start >= :dateTime " +
-            " ORDER BY b.start DESC "
-    )
-    List<Booking> findAllByItemOwnerAndStartIsAfterOrderByStartDesc(Pageable pageable, Long ownerId, LocalDateTime dateTime);
+    Optional<Booking> findFirstByItemIdAndStatusAndStartBeforeOrderByStartDesc(Long itemId, Status status,
+                                                                               LocalDateTime dateTime);
 
-    @Query("SELECT b FROM Booking as b " +
-            " JOIN Item as i ON b.item.id = i.id" +
-            " WHERE i.owner.id = :ownerId " +
-            " AND b.status = ru.practicum.shareit.booking.model.Status.REJECTED " +
-            " ORDER BY b.start DESC "
-    )
-    List<Booking> findAllByItemOwnerAndStateRejectedOrderByStartDesc(Pageable pageable, Long ownerId);
-
-    @Query("SELECT b FROM Booking as b " +
-            " JOIN Item as i ON b.item.id = i.id" +
-            " WHERE i.owner.id = :ownerId " +
-            " AND b.status = ru.practicum.shareit.booking.model.Status.WAITING " +
-            " ORDER BY b.start DESC "
-    )
-    List<Booking> findAllByItemOwnerAndStateWaitingOrderByStartDesc(Pageable pageable, Long ownerId);
-
-    @Query("SELECT b FROM Booking as b " +
-            " JOIN Item as i ON b.item.id = i.id" +
-            " WHERE i.owner.id = :ownerId" +
-            " AND b.start <= :dateTime " +
-            " AND b.end >= :dateTime ")
-    List<Booking> findAllByItemOwnerByDateIntoPeriodOrderByStartDesc(Pageable pageable, Long ownerId, LocalDateTime dateTime);
-
-    @Query("SELECT b FROM Booking as b " +
-            " JOIN Item as i ON b.item.id = i.id" +
-            " WHERE i.owner.id = :ownerId" +
-            " AND b.end < :dateTime " +
-            " ORDER BY b.start DESC "
-    )
-    List<Booking> findAllByItemOwnerAndEndIsBeforeOrderByStartDesc(Pageable pageable, Long ownerId, LocalDateTime dateTime);
+    Optional<Booking> findFirstByItemIdAndStatusAndStartAfterOrderByStartAsc(Long itemId, Status status,
+                                                                             LocalDateTime dateTime);
 
     @Query("SELECT b FROM Booking as b " +
-            " WHERE b.item.id = :itemId " +
+            " JOIN FETCH b.item " +
+            " JOIN FETCH b.booker " +
+            " WHERE b.item.id IN :itemIds " +
             " AND b.status = ru.practicum.shareit.booking.model.Status.APPROVED " +
-            " AND b.start < :dateTime " +
-            " ORDER BY b.start Desc "
+            " AND b.start = (SELECT max(lb.start) FROM Booking as lb " +
+            "   WHERE lb.item.id = b.item.id " +
+            "   AND lb.status = ru.practicum.shareit.booking.model.Status.APPROVED " +
+            "   AND lb.start < :dateTime) "
     )
-    List<Booking> findAllByItemIdAndOrderByStartDesc(Long itemId, LocalDateTime dateTime);
+    List<Booking> findLastApprovedByItemIds(Collection<Long> itemIds, LocalDateTime dateTime);
 
     @Query("SELECT b FROM Booking as b " +
-            " WHERE b.item.id = :itemId " +
+            " JOIN FETCH b.item " +
+            " JOIN FETCH b.booker " +
+            " WHERE b.item.id IN :itemIds " +
             " AND b.status = ru.practicum.shareit.booking.model.Status.APPROVED " +
-            " AND b.start > :dateTime " +
-            " ORDER BY b.start Asc "
+            " AND b.start = (SELECT min(nb.start) FROM Booking as nb " +
+            "   WHERE nb.item.id = b.item.id " +
+            "   AND nb.status = ru.practicum.shareit.booking.model.Status.APPROVED " +
+            "   AND nb.start > :dateTime) "
     )
-    List<Booking> findAllByItemIdOrderByStartAsc(Long itemId, LocalDateTime dateTime);
+    List<Booking> findNextApprovedByItemIds(Collection<Long> itemIds, LocalDateTime dateTime);
 
     @Query("SELECT b FROM Booking as b " +
             " JOIN Item as i ON b.item.id = i.id" +
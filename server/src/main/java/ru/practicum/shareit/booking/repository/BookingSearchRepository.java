@@ -0,0 +1,14 @@
+package ru.practicum.shareit.booking.repository;
+
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingOutDto;
+import ru.practicum.shareit.booking.model.BookingRole;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface BookingSearchRepository {
+
+    List<BookingOutDto> findAllByRoleAndState(BookingRole role, Long userId, String state, LocalDateTime dateTime,
+                                              BookingCursor cursor, int from, int size);
+}
@@ -0,0 +1,121 @@
+package ru.practicum.shareit.booking.repository;
+
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingOutDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingRole;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.ParameterExpression;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class BookingSearchRepositoryImpl implements BookingSearchRepository {
+    private static final String USER_ID = "userId";
+    private static final String DATE_TIME = "dateTime";
+    private static final String STATUS = "status";
+    private static final String CURSOR_START = "cursorStart";
+    private static final String CURSOR_ID = "cursorId";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<BookingOutDto> findAllByRoleAndState(BookingRole role, Long userId, String state,
+                                                     LocalDateTime dateTime, BookingCursor cursor,
+                                                     int from, int size) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BookingOutDto> query = cb.createQuery(BookingOutDto.class);
+        Root<Booking> booking = query.from(Booking.class);
+        Join<Booking, Item> item = booking.join("item");
+        Join<Booking, User> booker = booking.join("booker");
+        Path<LocalDateTime> start = booking.get("start");
+        Path<LocalDateTime> end = booking.get("end");
+        Path<Long> id = booking.get("id");
+
+        // все значения передаются параметрами, чтобы текст запроса и его план зависели только от формы запроса
+        List<Predicate> predicates = new ArrayList<>();
+        ParameterExpression<Long> userIdParam = cb.parameter(Long.class, USER_ID);
+        if (role == BookingRole.OWNER) {
+            predicates.add(cb.equal(item.get("owner").get("id"), userIdParam));
+        } else {
+            predicates.add(cb.equal(booking.get("booker").get("id"), userIdParam));
+        }
+        ParameterExpression<LocalDateTime> dateTimeParam = cb.parameter(LocalDateTime.class, DATE_TIME);
+        ParameterExpression<Status> statusParam = cb.parameter(Status.class, STATUS);
+        Status status = null;
+        boolean withDateTime = false;
+        switch (state) {
+            case ("ALL"):
+                break;
+            case ("CURRENT"):
+                predicates.add(cb.lessThanOrEqualTo(start, dateTimeParam));
+                predicates.add(cb.greaterThanOrEqualTo(end, dateTimeParam));
+                withDateTime = true;
+                break;
+            case ("PAST"):
+                predicates.add(cb.lessThan(end, dateTimeParam));
+                withDateTime = true;
+                break;
+            case ("FUTURE"):
+                // как и до объединения запросов: владельцу бронирование, начинающееся ровно сейчас, тоже будущее
+                if (role == BookingRole.OWNER) {
+                    predicates.add(cb.greaterThanOrEqualTo(start, dateTimeParam));
+                } else {
+                    predicates.add(cb.greaterThan(start, dateTimeParam));
+                }
+                withDateTime = true;
+                break;
+            case ("REJECTED"):
+                predicates.add(cb.equal(booking.get("status"), statusParam));
+                status = Status.REJECTED;
+                break;
+            case ("WAITING"):
+                predicates.add(cb.equal(booking.get("status"), statusParam));
+                status = Status.WAITING;
+                break;
+            default:
+                return List.of();
+        }
+        if (cursor != null) {
+            ParameterExpression<LocalDateTime> cursorStartParam = cb.parameter(LocalDateTime.class, CURSOR_START);
+            ParameterExpression<Long> cursorIdParam = cb.parameter(Long.class, CURSOR_ID);
+            predicates.add(cb.or(
+                    cb.lessThan(start, cursorStartParam),
+                    cb.and(cb.equal(start, cursorStartParam), cb.lessThan(id, cursorIdParam))));
+        }
+        // сразу собираем BookingOutDto, чтобы не поднимать сущности вещи, владельца и автора бронирования
+        query.select(cb.construct(BookingOutDto.class, id, start, end, booking.get("status"),
+                        item.get("id"), item.get("name"), booker.get("id"), booker.get("name")))
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.desc(start), cb.desc(id));
+
+        TypedQuery<BookingOutDto> typedQuery = entityManager.createQuery(query)
+                .setParameter(USER_ID, userId)
+                .setFirstResult(from)
+                .setMaxResults(size);
+        if (withDateTime) {
+            typedQuery.setParameter(DATE_TIME, dateTime);
+        }
+        if (status != null) {
+            typedQuery.setParameter(STATUS, status);
+        }
+        if (cursor != null) {
+            typedQuery.setParameter(CURSOR_START, cursor.getStart())
+                    .setParameter(CURSOR_ID, cursor.getId());
+        }
+        return typedQuery.getResultList();
+    }
+}
@@ -2,6 +2,7 @@ package ru.practicum.shareit.booking.service;
 
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingOutDto;
+import ru.practicum.shareit.booking.dto.BookingPage;
 
 import java.util.List;
 
@@ -12,8 +13,14 @@ public interface BookingService {
 
     BookingOutDto findBookingById(Long userId, Long bookingId);
 
+    String getBookingETag(Long userId, Long bookingId);
+
     List<BookingOutDto> findAllBookingByUserAndState(Long userId, String state, Integer from, Integer size);
 
     List<BookingOutDto> findAllBookingByOwnerAndState(Long ownerId, String state, Integer from, Integer size);
 
+    BookingPage findBookingPageByUserAndState(Long userId, String state, String cursor, Integer size);
+
+    BookingPage findBookingPageByOwnerAndState(Long ownerId, String state, String cursor, Integer size);
+
 }
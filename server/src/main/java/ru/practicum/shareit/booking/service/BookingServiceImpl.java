@@ -1,14 +1,15 @@
 package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingOutDto;
+import ru.practicum.shareit.booking.dto.BookingPage;
+import ru.practicum.shareit.booking.dto.BookingVersion;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingRole;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exception.AccessException;
@@ -16,27 +17,24 @@ import ru.practicum.shareit.exception.FoundException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserCache;
 
 import javax.transaction.Transactional;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
 
 @Service
 @org.springframework.transaction.annotation.Transactional(readOnly = true)
 @RequiredArgsConstructor
 public class BookingServiceImpl implements BookingService {
-    private final UserRepository userRepository;
+    private final UserCache userCache;
     private final BookingRepository bookingRepository;
     private final ItemRepository itemRepository;
 
     @Override
     @Transactional
     public BookingOutDto createBooking(Long userId, BookingDto bookingInDto) {
-        User booker = userRepository.findById(userId)
-                .orElseThrow(() -> new FoundException("Пользователь не найден"));
+        User booker = userCache.getReference(userId);
         Item item = itemRepository.findById(bookingInDto.getItemId())
                 .orElseThrow(() -> new FoundException("Вещь не найдена"));
         if (!item.getAvailable()) {
@@ -49,8 +47,9 @@ public class BookingServiceImpl implements BookingService {
         booking.setStatus(Status.WAITING);
         booking.setBooker(booker);
         booking.setItem(item);
-        booking = bookingRepository.save(booking);
-        BookingOutDto bookingOutDto = getBookingOutDtoWithItemAndUser(booking);
+        Booking saved = userCache.saveReferencing(userId, "fk_bookings_to_users",
+                () -> bookingRepository.save(booking));
+        BookingOutDto bookingOutDto = getBookingOutDtoWithItemAndUser(saved);
 
         return bookingOutDto;
     }
@@ -58,110 +57,80 @@ public class BookingServiceImpl implements BookingService {
     @Override
     @Transactional
     public BookingOutDto updateBookingApproveStatus(Long userId, Long bookingId, Boolean approved) {
-        userRepository.findById(userId).orElseThrow(() -> new FoundException("Пользователь не найден"));
-        checkBookingExist(bookingId);
-        Booking booking = bookingRepository.findById(bookingId).get();
-        checkItemOwnerForAccess(userId, booking);
-        if (booking.getStatus() != Status.WAITING) {
-            throw new AccessException("Неверный статус бронирования");
+        Booking booking = findBookingWithItemAndBooker(bookingId);
+        if (!userId.equals(booking.getItem().getOwner().getId())) {
+            throw new FoundException("Доступ запрещен");
         }
-        if (approved) {
-            booking.setStatus(Status.APPROVED);
-        } else {
-            booking.setStatus(Status.REJECTED);
+        Status status = approved ? Status.APPROVED : Status.REJECTED;
+        // статус меняется только у ожидающего бронирования, повторное подтверждение не пройдет
+        if (bookingRepository.updateStatusIfWaiting(bookingId, status) == 0) {
+            throw new AccessException("Неверный статус бронирования");
         }
-        booking = bookingRepository.save(booking);
+        // бронирование загружено только для чтения, поэтому новый статус попадает в ответ, а не в сущность
         BookingOutDto bookingOutDto = getBookingOutDtoWithItemAndUser(booking);
+        bookingOutDto.setStatus(status);
 
         return bookingOutDto;
     }
 
-    private void checkItemOwnerForAccess(Long userId, Booking booking) {
-        Item item = itemRepository.findById(booking.getItem().getId()).orElseThrow(() -> new FoundException("Вещь не найдена"));
-        if (!userId.equals(item.getOwner().getId())) {
-            throw new FoundException("Доступ запрещен");
-        }
-    }
-
     @Override
     public BookingOutDto findBookingById(Long userId, Long bookingId) {
-        userRepository.findById(userId).orElseThrow(() -> new FoundException("Пользователь не найден"));
-        checkBookingExist(bookingId);
-        Optional<Booking> booking = bookingRepository.findByIdAndBookerOrOwner(bookingId, userId);
-        if (booking.isEmpty()) {
+        Booking booking = findBookingWithItemAndBooker(bookingId);
+        if (!userId.equals(booking.getBooker().getId()) && !userId.equals(booking.getItem().getOwner().getId())) {
             throw new FoundException("Бронирование не найдено");
         }
-        BookingOutDto bookingOutDto = getBookingOutDtoWithItemAndUser(booking.get());
+        BookingOutDto bookingOutDto = getBookingOutDtoWithItemAndUser(booking);
 
         return bookingOutDto;
     }
 
     @Override
-    public List<BookingOutDto> findAllBookingByUserAndState(Long userId, String state, Integer from, Integer size) {
-        userRepository.findById(userId).orElseThrow(() -> new FoundException("Пользователь не найден"));
-        List<Booking> bookingList = new ArrayList<>();
-        Sort sort = Sort.sort(Booking.class).by(Booking::getStart).descending();
-        Pageable pageable = PageRequest.of(from / size, size, sort);
-        switch (state) {
-            case ("ALL"):
-                bookingList = bookingRepository.findAllByBookerIdOrderByStartDesc(pageable, userId);
-                break;
-            case ("CURRENT"):
-                bookingList = bookingRepository.findAllByBookerIdByDateIntoPeriodOrderByStartDesc(pageable, userId, LocalDateTime.now());
-                break;
-            case ("PAST"):
-                bookingList = bookingRepository.findAllByBookerIdAndEndIsBeforeOrderByStartDesc(pageable, userId, LocalDateTime.now());
-                break;
-            case ("FUTURE"):
-                bookingList = bookingRepository.findAllByBookerIdAndStartIsAfterOrderByStartDesc(pageable, userId, LocalDateTime.now());
-                break;
-            case ("REJECTED"):
-                bookingList = bookingRepository.findAllByBookerIdAndStatusRejectedOrderByStartDesc(pageable, userId);
-                break;
-            case ("WAITING"):
-                bookingList = bookingRepository.findAllByBookerIdAndStatusWaitingOrderByStartDesc(pageable, userId);
-                break;
-            default:
+    public String getBookingETag(Long userId, Long bookingId) {
+        BookingVersion version = bookingRepository.findVersionById(bookingId)
+                .orElseThrow(() -> new FoundException("Бронирование по идентификатору не найдено"));
+        if (!userId.equals(version.getBookerId()) && !userId.equals(version.getOwnerId())) {
+            throw new FoundException("Бронирование не найдено");
         }
-        return bookingListToOutDtoList(bookingList);
+        // статус, название вещи и имя арендатора: последние два отражают версии вещи и пользователя
+        return "\"" + bookingId + "-" + version.getStatus() + "-" + version.getItemVersion()
+                + "-" + version.getBookerVersion() + "\"";
+    }
+
+    @Override
+    public List<BookingOutDto> findAllBookingByUserAndState(Long userId, String state, Integer from, Integer size) {
+        userCache.get(userId);
+        return bookingRepository.findAllByRoleAndState(BookingRole.BOOKER, userId, state,
+                LocalDateTime.now(), null, from, size);
     }
 
     @Override
     public List<BookingOutDto> findAllBookingByOwnerAndState(Long ownerId, String state, Integer from, Integer size) {
-        userRepository.findById(ownerId).orElseThrow(() -> new FoundException("Пользователь не найден"));
-        List<Booking> bookingList = new ArrayList<>();
-        Sort sort = Sort.sort(Booking.class).by(Booking::getStart).descending();
-        Pageable pageable = PageRequest.of(from / size, size, sort);
-        switch (state) {
-            case ("ALL"):
-                bookingList = bookingRepository.findAllByItemOwnerOrderByStartDesc(pageable, ownerId);
-                break;
-            case ("CURRENT"):
-                bookingList = bookingRepository.findAllByItemOwnerByDateIntoPeriodOrderByStartDesc(pageable, ownerId, LocalDateTime.now());
-                break;
-            case ("PAST"):
-                bookingList = bookingRepository.findAllByItemOwnerAndEndIsBeforeOrderByStartDesc(pageable, ownerId, LocalDateTime.now());
-                break;
-            case ("FUTURE"):
-                bookingList = bookingRepository.findAllByItemOwnerAndStartIsAfterOrderByStartDesc(pageable, ownerId, LocalDateTime.now());
-                break;
-            case ("REJECTED"):
-                bookingList = bookingRepository.findAllByItemOwnerAndStateRejectedOrderByStartDesc(pageable, ownerId);
-                break;
-            case ("WAITING"):
-                bookingList = bookingRepository.findAllByItemOwnerAndStateWaitingOrderByStartDesc(pageable, ownerId);
-                break;
-            default:
-        }
-        return bookingListToOutDtoList(bookingList);
+        userCache.get(ownerId);
+        return bookingRepository.findAllByRoleAndState(BookingRole.OWNER, ownerId, state,
+                LocalDateTime.now(), null, from, size);
     }
 
-    private List<BookingOutDto> bookingListToOutDtoList(List<Booking> bookingList) {
-        List<BookingOutDto> bookingOutDtoList = new ArrayList<>();
-        for (Booking booking : bookingList) {
-            bookingOutDtoList.add(getBookingOutDtoWithItemAndUser(booking));
+    @Override
+    public BookingPage findBookingPageByUserAndState(Long userId, String state, String cursor, Integer size) {
+        userCache.get(userId);
+        return findBookingPage(BookingRole.BOOKER, userId, state, cursor, size);
+    }
+
+    @Override
+    public BookingPage findBookingPageByOwnerAndState(Long ownerId, String state, String cursor, Integer size) {
+        userCache.get(ownerId);
+        return findBookingPage(BookingRole.OWNER, ownerId, state, cursor, size);
+    }
+
+    private BookingPage findBookingPage(BookingRole role, Long userId, String state, String cursor, Integer size) {
+        List<BookingOutDto> bookingList = bookingRepository.findAllByRoleAndState(role, userId, state,
+                LocalDateTime.now(), BookingCursor.decode(cursor), 0, size + 1);
+        String nextCursor = null;
+        if (bookingList.size() > size) {
+            bookingList = bookingList.subList(0, size);
+            nextCursor = BookingCursor.of(bookingList.get(size - 1)).encode();
         }
-        return bookingOutDtoList;
+        return new BookingPage(bookingList, nextCursor);
     }
 
     private BookingOutDto getBookingOutDtoWithItemAndUser(Booking booking) {
@@ -171,10 +140,8 @@ public class BookingServiceImpl implements BookingService {
         return bookingOutDto;
     }
 
-    private void checkBookingExist(Long bookingId) {
-        Optional<Booking> booking = bookingRepository.findById(bookingId);
-        if (booking.isEmpty()) {
-            throw new FoundException("Бронирование по идентификатору не найдено");
-        }
+    private Booking findBookingWithItemAndBooker(Long bookingId) {
+        return bookingRepository.findWithItemAndBookerById(bookingId)
+                .orElseThrow(() -> new FoundException("Бронирование по идентификатору не найдено"));
     }
 }
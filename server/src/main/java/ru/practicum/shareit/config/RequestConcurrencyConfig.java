@@ -0,0 +1,24 @@
+package ru.practicum.shareit.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+// с виртуальными потоками пул Tomcat больше не ограничивает число одновременных запросов,
+// поэтому его место занимает RequestConcurrencyFilter, согласованный с пулом соединений к базе
+@Configuration
+@ConditionalOnProperty(name = "shareit.threads.mode", havingValue = "virtual")
+public class RequestConcurrencyConfig {
+
+    @Bean
+    public RequestConcurrencyFilter requestConcurrencyFilter(
+            @Value("${shareit.threads.max-concurrent-requests}") int maxConcurrentRequests,
+            @Value("${shareit.threads.acquire-timeout}") Duration acquireTimeout,
+            ObjectMapper objectMapper) {
+        return new RequestConcurrencyFilter(maxConcurrentRequests, acquireTimeout, objectMapper);
+    }
+}
@@ -1,13 +1,21 @@
 package ru.practicum.shareit.item.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.Constants;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentInDto;
 import ru.practicum.shareit.item.dto.ItemBookingDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSearchPage;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.web.Responses;
 
 import java.nio.file.AccessDeniedException;
 import java.util.List;
@@ -19,6 +27,7 @@ import java.util.List;
 @Slf4j
 public class ItemController {
     private final ItemService itemService;
+    private final ObjectMapper objectMapper;
 
     @GetMapping
     public List<ItemBookingDto> findAllItemsByUserId(@RequestHeader(name = "X-Sharer-User-Id") Long ownerId) {
@@ -34,8 +43,10 @@ public class ItemController {
     }
 
     @GetMapping("{itemId}")
-    public ItemBookingDto findItemById(@PathVariable Long itemId, @RequestHeader("X-Sharer-User-Id") Long userId) {
-        return itemService.findItemBookingById(itemId, userId);
+    public ResponseEntity<ItemBookingDto> findItemById(@PathVariable Long itemId, @RequestHeader("X-Sharer-User-Id") Long userId,
+                                                       WebRequest webRequest) {
+        return Responses.conditional(webRequest, itemService.getItemETag(itemId, userId),
+                () -> itemService.findItemBookingById(itemId, userId));
     }
 
     @PatchMapping("{itemId}")
@@ -48,9 +59,28 @@ public class ItemController {
     }
 
     @GetMapping("search")
-    public List<ItemDto> findItemsByQueryText(@RequestParam(name = "text", defaultValue = "") String queryText) {
+    public List<ItemDto> findItemsByQueryText(@RequestParam(name = "text", defaultValue = "") String queryText,
+                                              @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                              @RequestParam(name = "size", defaultValue = Constants.PAGE_SIZE_STRING) Integer size) {
         log.info("GET /items search- поиск вещи.");
-        return itemService.findItemsByQueryText(queryText);
+        return itemService.findItemsByQueryText(queryText, from, size);
+    }
+
+    @GetMapping(path = "search", params = "cursor")
+    public ResponseEntity<List<ItemDto>> findItemPageByQueryText(@RequestParam(name = "text", defaultValue = "") String queryText,
+                                                                 @RequestParam String cursor,
+                                                                 @RequestParam(name = "size", defaultValue = Constants.PAGE_SIZE_STRING) Integer size) {
+        log.info("GET /items search - поиск вещи по курсору.");
+        ItemSearchPage page = itemService.findItemPageByQueryText(queryText, cursor, size);
+        return Responses.page(page.getItems(), page.getNextCursor());
+    }
+
+    @GetMapping(path = "search", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamItemsByQueryText(@RequestParam(name = "text", defaultValue = "") String queryText) {
+        log.info("GET /items search - потоковый поиск вещи.");
+        StreamingResponseBody body = outputStream -> Responses.writeNdjson(outputStream, objectMapper,
+                itemService.findItemIdsByQueryText(queryText), itemService::findItemsByIds);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
 
     @PostMapping("{itemId}/comment")
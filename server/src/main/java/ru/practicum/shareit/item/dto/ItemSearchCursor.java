@@ -0,0 +1,38 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.Data;
+
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidParameterException;
+import java.util.Base64;
+
+@Data
+public class ItemSearchCursor {
+    private static final String SEPARATOR = "|";
+
+    private final boolean nameMatch;
+    private final long id;
+
+    public String encode() {
+        String value = nameMatch + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ItemSearchCursor decode(String token) {
+        // пустой курсор - первая страница
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = value.indexOf(SEPARATOR);
+            String nameMatch = value.substring(0, separator);
+            if (!"true".equals(nameMatch) && !"false".equals(nameMatch)) {
+                throw new InvalidParameterException("Некорректный курсор");
+            }
+            return new ItemSearchCursor(Boolean.parseBoolean(nameMatch), Long.parseLong(value.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new InvalidParameterException("Некорректный курсор");
+        }
+    }
+}
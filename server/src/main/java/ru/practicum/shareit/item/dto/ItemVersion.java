@@ -0,0 +1,13 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ItemVersion {
+    private Long ownerId;
+    private Long version;
+    private Long commentCount;
+    private Long authorVersions;
+}
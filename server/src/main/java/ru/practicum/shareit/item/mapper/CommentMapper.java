@@ -1,6 +1,7 @@
 package ru.practicum.shareit.item.mapper;
 
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemCommentDto;
 import ru.practicum.shareit.item.model.Comment;
 
 import java.util.ArrayList;
@@ -16,6 +17,11 @@ public class CommentMapper {
         return commentDto;
     }
 
+    public static CommentDto itemCommentToDto(ItemCommentDto itemCommentDto) {
+        return new CommentDto(itemCommentDto.getId(), itemCommentDto.getText(),
+                itemCommentDto.getAuthorName(), itemCommentDto.getCreated());
+    }
+
     public static List<CommentDto> commentListToDto(List<Comment> commentList) {
         List<CommentDto> commentDtoList = new ArrayList<>();
         for (Comment comment : commentList) {
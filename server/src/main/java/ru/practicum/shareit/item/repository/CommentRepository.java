@@ -2,15 +2,27 @@ package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemCommentDto;
 import ru.practicum.shareit.item.model.Comment;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
-    @Query("SELECT c FROM Comment as c " +
+    @Query("SELECT new ru.practicum.shareit.item.dto.CommentDto(c.id, c.text, u.name, c.created) " +
+            " FROM Comment as c " +
+            " JOIN User as u ON c.authorId = u.id " +
             " WHERE c.item = :itemId "
     )
-    List<Comment> findAllByCommentAndItemId(Long itemId);
+    List<CommentDto> findAllCommentDtoByItemId(Long itemId);
+
+    @Query("SELECT new ru.practicum.shareit.item.dto.ItemCommentDto(c.item, c.id, c.text, u.name, c.created) " +
+            " FROM Comment as c " +
+            " JOIN User as u ON c.authorId = u.id " +
+            " WHERE c.item IN :itemIds "
+    )
+    List<ItemCommentDto> findAllCommentDtoByItemIdIn(Collection<Long> itemIds);
 
 }
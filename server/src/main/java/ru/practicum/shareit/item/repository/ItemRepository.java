@@ -2,16 +2,31 @@ package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.item.dto.ItemVersion;
 import ru.practicum.shareit.item.model.Item;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
     @Query("select i from Item i " +
-            "where i.available=true and length(?1)>0 and " +
-            "(upper(i.name) like upper(concat('%', ?1, '%')) " +
-            " or upper(i.description) like upper(concat('%', ?1, '%')))")
-    List<Item> findItemByAvailableAndQueryContainWithIgnoreCase(String queryText);
+            "join fetch i.owner " +
+            "left join fetch i.request " +
+            "where i.id in ?1")
+    List<Item> findAllByIdIn(Collection<Long> ids);
 
+    @Query("select i from Item i " +
+            "join fetch i.owner " +
+            "left join fetch i.request " +
+            "where i.owner.id = ?1 " +
+            "order by i.id")
     List<Item> findAllByOwnerId(Long ownerId);
+
+    @Query("select new ru.practicum.shareit.item.dto.ItemVersion(i.owner.id, i.version, " +
+            "(select count(c) from Comment c where c.item = i.id), " +
+            "(select coalesce(sum(u.version), 0) from Comment c, User u where c.item = i.id and u.id = c.authorId)) " +
+            "from Item i " +
+            "where i.id = ?1")
+    Optional<ItemVersion> findVersionById(Long itemId);
 }
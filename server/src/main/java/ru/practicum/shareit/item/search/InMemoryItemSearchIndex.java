@@ -0,0 +1,219 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.dto.ItemSearchCursor;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "memory")
+public class InMemoryItemSearchIndex implements ItemSearchIndex {
+    private static final int GRAM_SIZE = 3;
+
+    private final ItemRepository itemRepository;
+
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+    // поиски идут параллельно, блокирует их только запись в индекс
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<Item> items = itemRepository.findAll();
+        lock.writeLock().lock();
+        try {
+            documents.clear();
+            postings.clear();
+            items.forEach(item -> put(toDocument(item)));
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Индекс поиска вещей построен, вещей: {}", items.size());
+    }
+
+    @Override
+    public List<Long> search(String text, int from, int size) {
+        return find(normalize(text), null, (long) from + size).stream()
+                .skip(from)
+                .map(Document::getId)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<ItemSearchCursor> searchAfter(String text, ItemSearchCursor cursor, int size) {
+        String query = normalize(text);
+        return find(query, cursor, size).stream()
+                .map(document -> new ItemSearchCursor(document.getName().contains(query), document.getId()))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Long> searchAll(String text) {
+        return search(text, 0, Integer.MAX_VALUE);
+    }
+
+    private List<Document> find(String query, ItemSearchCursor cursor, long limit) {
+        if (query.isEmpty()) {
+            return List.of();
+        }
+        Comparator<Document> order = order(query);
+        // вместо сортировки всех совпадений в куче остаются только limit первых
+        PriorityQueue<Document> top = new PriorityQueue<>(order.reversed());
+        lock.readLock().lock();
+        try {
+            for (Long id : findCandidates(query)) {
+                Document document = documents.get(id);
+                // курсор отсекает документы до сортировки
+                if (!document.matches(query) || cursor != null && !isAfter(document, query, cursor)) {
+                    continue;
+                }
+                if (top.size() < limit) {
+                    top.add(document);
+                } else if (order.compare(document, top.peek()) < 0) {
+                    top.poll();
+                    top.add(document);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<Document> found = new ArrayList<>(top);
+        found.sort(order);
+        return found;
+    }
+
+    @Override
+    public void index(Item item) {
+        Document document = toDocument(item);
+        // изменения попадают в индекс только после фиксации транзакции
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    write(document);
+                }
+            });
+        } else {
+            write(document);
+        }
+    }
+
+    private void write(Document document) {
+        lock.writeLock().lock();
+        try {
+            put(document);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static Comparator<Document> order(String query) {
+        return Comparator.comparing((Document document) -> !document.getName().contains(query))
+                .thenComparing(Document::getId);
+    }
+
+    private static boolean isAfter(Document document, String query, ItemSearchCursor cursor) {
+        boolean nameMatch = document.getName().contains(query);
+        if (nameMatch != cursor.isNameMatch()) {
+            return !nameMatch;
+        }
+        return document.getId() > cursor.getId();
+    }
+
+    private Collection<Long> findCandidates(String query) {
+        if (query.length() < GRAM_SIZE) {
+            return documents.keySet();
+        }
+        Set<Long> candidates = null;
+        for (String gram : grams(query)) {
+            Set<Long> ids = postings.getOrDefault(gram, Set.of());
+            if (candidates == null) {
+                candidates = new HashSet<>(ids);
+            } else {
+                candidates.retainAll(ids);
+            }
+            if (candidates.isEmpty()) {
+                break;
+            }
+        }
+        return candidates;
+    }
+
+    private static Document toDocument(Item item) {
+        return new Document(item.getId(), normalize(item.getName()),
+                normalize(item.getDescription()), Boolean.TRUE.equals(item.getAvailable()));
+    }
+
+    private void put(Document document) {
+        Document previous = documents.remove(document.getId());
+        if (previous != null) {
+            for (String gram : previous.grams()) {
+                Set<Long> ids = postings.get(gram);
+                ids.remove(previous.getId());
+                if (ids.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+        if (!document.isAvailable()) {
+            return;
+        }
+        documents.put(document.getId(), document);
+        for (String gram : document.grams()) {
+            postings.computeIfAbsent(gram, key -> new HashSet<>()).add(document.getId());
+        }
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toUpperCase();
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_SIZE <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM_SIZE));
+        }
+        return grams;
+    }
+
+    @Value
+    private static class Document {
+        Long id;
+        String name;
+        String description;
+        boolean available;
+
+        boolean matches(String query) {
+            return name.contains(query) || description.contains(query);
+        }
+
+        Set<String> grams() {
+            Set<String> grams = new HashSet<>(InMemoryItemSearchIndex.grams(name));
+            grams.addAll(InMemoryItemSearchIndex.grams(description));
+            return grams;
+        }
+    }
+}
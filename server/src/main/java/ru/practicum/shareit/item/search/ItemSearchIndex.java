@@ -0,0 +1,19 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.item.dto.ItemSearchCursor;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+public interface ItemSearchIndex {
+
+    List<Long> search(String text, int from, int size);
+
+    // каждое совпадение возвращается вместе со своим местом в ранжировании, из него строится курсор
+    List<ItemSearchCursor> searchAfter(String text, ItemSearchCursor cursor, int size);
+
+    // все совпадения в том же порядке, что и у search, за один проход
+    List<Long> searchAll(String text);
+
+    void index(Item item);
+}
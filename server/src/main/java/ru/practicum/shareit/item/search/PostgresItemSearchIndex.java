@@ -0,0 +1,106 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemSearchCursor;
+import ru.practicum.shareit.item.model.Item;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Component
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "postgresql", matchIfMissing = true)
+public class PostgresItemSearchIndex implements ItemSearchIndex {
+    // ILIKE обслуживается GIN-индексами pg_trgm из schema-postgresql.sql
+    private static final String NAME_RANK = "CASE WHEN i.name ILIKE :pattern ESCAPE '\\' THEN 0 ELSE 1 END";
+    private static final String SEARCH_QUERY = "SELECT i.id FROM items AS i " +
+            " WHERE i.is_available " +
+            " AND (i.name ILIKE :pattern ESCAPE '\\' OR i.description ILIKE :pattern ESCAPE '\\') " +
+            " ORDER BY " + NAME_RANK + ", i.id ";
+    // ранг совпадения не индексируется, поэтому выдача по курсору собирается из двух полос,
+    // каждая упорядочена только по id: сначала совпадения в названии, затем только в описании
+    private static final String NAME_BAND = "SELECT i.id FROM items AS i " +
+            " WHERE i.is_available " +
+            " AND i.name ILIKE :pattern ESCAPE '\\' " +
+            " AND i.id > :id " +
+            " ORDER BY i.id ";
+    private static final String DESCRIPTION_BAND = "SELECT i.id FROM items AS i " +
+            " WHERE i.is_available " +
+            " AND COALESCE(i.name, '') NOT ILIKE :pattern ESCAPE '\\' " +
+            " AND i.description ILIKE :pattern ESCAPE '\\' " +
+            " AND i.id > :id " +
+            " ORDER BY i.id ";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Long> search(String text, int from, int size) {
+        if (from == 0) {
+            return searchAfter(text, null, size).stream()
+                    .map(ItemSearchCursor::getId)
+                    .collect(Collectors.toList());
+        }
+        List<Number> ids = entityManager.createNativeQuery(SEARCH_QUERY)
+                .setParameter("pattern", toPattern(text))
+                .setFirstResult(from)
+                .setMaxResults(size)
+                .getResultList();
+        return ids.stream().map(Number::longValue).collect(Collectors.toList());
+    }
+
+    @Override
+    public List<ItemSearchCursor> searchAfter(String text, ItemSearchCursor cursor, int size) {
+        String pattern = toPattern(text);
+        List<ItemSearchCursor> hits = new ArrayList<>();
+        // полоса, из которой пришел id, и есть его ранг
+        if (cursor == null || cursor.isNameMatch()) {
+            findBand(NAME_BAND, pattern, cursor == null ? 0 : cursor.getId(), size)
+                    .forEach(id -> hits.add(new ItemSearchCursor(true, id)));
+        }
+        if (hits.size() < size) {
+            long afterId = cursor == null || cursor.isNameMatch() ? 0 : cursor.getId();
+            findBand(DESCRIPTION_BAND, pattern, afterId, size - hits.size())
+                    .forEach(id -> hits.add(new ItemSearchCursor(false, id)));
+        }
+        return hits;
+    }
+
+    @Override
+    public List<Long> searchAll(String text) {
+        String pattern = toPattern(text);
+        List<Long> ids = findBand(NAME_BAND, pattern, 0, null);
+        ids.addAll(findBand(DESCRIPTION_BAND, pattern, 0, null));
+        return ids;
+    }
+
+    @Override
+    public void index(Item item) {
+        // индекс обновляет сама база
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Long> findBand(String band, String pattern, long afterId, Integer limit) {
+        Query query = entityManager.createNativeQuery(band)
+                .setParameter("pattern", pattern)
+                .setParameter("id", afterId);
+        if (limit != null) {
+            query.setMaxResults(limit);
+        }
+        List<Number> ids = query.getResultList();
+        return ids.stream().map(Number::longValue).collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    private static String toPattern(String text) {
+        return "%" + escapeLike(text) + "%";
+    }
+
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
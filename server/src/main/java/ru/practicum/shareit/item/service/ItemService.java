@@ -4,6 +4,7 @@ import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentInDto;
 import ru.practicum.shareit.item.dto.ItemBookingDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSearchPage;
 import ru.practicum.shareit.item.model.Item;
 
 import java.nio.file.AccessDeniedException;
@@ -16,10 +17,18 @@ public interface ItemService {
 
     List<ItemBookingDto> findAllByUserId(Long userId);
 
-    List<ItemDto> findItemsByQueryText(String queryText);
+    List<ItemDto> findItemsByQueryText(String queryText, Integer from, Integer size);
+
+    ItemSearchPage findItemPageByQueryText(String queryText, String cursor, Integer size);
+
+    List<Long> findItemIdsByQueryText(String queryText);
+
+    List<ItemDto> findItemsByIds(List<Long> itemIds);
 
     ItemBookingDto findItemBookingById(Long userId, Long itemId);
 
+    String getItemETag(Long itemId, Long userId);
+
     CommentDto addCommentToItem(Long userId, Long itemId, CommentInDto commentInDto);
 
     Item findFullItemById(Long itemId);
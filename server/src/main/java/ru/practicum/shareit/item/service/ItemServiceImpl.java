@@ -5,12 +5,17 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.BookingItemDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exception.FoundException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentInDto;
 import ru.practicum.shareit.item.dto.ItemBookingDto;
+import ru.practicum.shareit.item.dto.ItemCommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSearchCursor;
+import ru.practicum.shareit.item.dto.ItemSearchPage;
+import ru.practicum.shareit.item.dto.ItemVersion;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemBookingMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
@@ -18,27 +23,33 @@ import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.RequestRepository;
+import ru.practicum.shareit.user.dto.UserProfile;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserCache;
 
 import java.nio.file.AccessDeniedException;
 import java.security.InvalidParameterException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class ItemServiceImpl implements ItemService {
-    private final UserRepository userRepository;
+    private final UserCache userCache;
     private final BookingRepository bookingRepository;
     private final ItemRepository itemRepository;
     private final CommentRepository commentRepository;
     private final RequestRepository requestRepository;
+    private final ItemSearchIndex itemSearchIndex;
 
 
     @Override
@@ -49,14 +60,17 @@ public class ItemServiceImpl implements ItemService {
         }
         checkBlankParameter(itemDto.getName());
         checkBlankParameter(itemDto.getDescription());
-        User user = userRepository.findById(userId).orElseThrow(() -> new FoundException("Пользователь не найден"));
+        User user = userCache.getReference(userId);
         Item item = ItemMapper.dtoToItem(itemDto);
         if (itemDto.getRequestId() != null) {
             ItemRequest request = requestRepository.findById(itemDto.getRequestId()).orElseThrow(() -> new FoundException("Запрос не найден"));
             item.setRequest(request);
         }
         item.setOwner(user);
-        return ItemMapper.itemToDto(itemRepository.save(item));
+        Item saved = userCache.saveReferencing(userId, "fk_items_to_users",
+                () -> itemRepository.save(item));
+        itemSearchIndex.index(saved);
+        return ItemMapper.itemToDto(saved);
     }
 
     private static void checkBlankParameter(String value) {
@@ -74,7 +88,7 @@ public class ItemServiceImpl implements ItemService {
         if (itemDto.getDescription() != null) {
             checkBlankParameter(itemDto.getDescription());
         }
-        userRepository.findById(userId).orElseThrow(() -> new FoundException("Пользователь не найден"));
+        userCache.get(userId);
         Optional<Item> checkItem = itemRepository.findById(itemId);
         if (checkItem.isEmpty()) {
             throw new FoundException("Такой вещи нет в базе");
@@ -96,47 +110,125 @@ public class ItemServiceImpl implements ItemService {
             ItemRequest request = requestRepository.findById(itemDto.getRequestId()).orElseThrow(() -> new FoundException("Запрос не найден"));
             updateItem.setRequest(request);
         }
-        return ItemMapper.itemToDto(itemRepository.save(updateItem));
+        updateItem = itemRepository.save(updateItem);
+        itemSearchIndex.index(updateItem);
+        return ItemMapper.itemToDto(updateItem);
     }
 
     @Override
     public List<ItemBookingDto> findAllByUserId(Long userId) {
         List<Item> itemList = itemRepository.findAllByOwnerId(userId);
+        if (itemList.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Long> itemIds = itemList.stream().map(Item::getId).collect(Collectors.toList());
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, Booking> lastBookings = bookingListToMapByItemId(
+                bookingRepository.findLastApprovedByItemIds(itemIds, now));
+        Map<Long, Booking> nextBookings = bookingListToMapByItemId(
+                bookingRepository.findNextApprovedByItemIds(itemIds, now));
+        Map<Long, List<CommentDto>> comments = getCommentDtoMapByItemId(itemIds);
         List<ItemBookingDto> itemDtoList = new ArrayList<>();
         for (Item item : itemList) {
-            itemDtoList.add(findItemBookingById(item.getId(), item.getOwner().getId()));
+            ItemBookingDto itemBookingDto = ItemBookingMapper.itemToDto(item);
+            itemBookingDto.setComments(comments.getOrDefault(item.getId(), new ArrayList<>()));
+            if (lastBookings.containsKey(item.getId())) {
+                itemBookingDto.setLastBooking(getBookingItemDto(lastBookings.get(item.getId())));
+            }
+            if (nextBookings.containsKey(item.getId())) {
+                itemBookingDto.setNextBooking(getBookingItemDto(nextBookings.get(item.getId())));
+            }
+            itemDtoList.add(itemBookingDto);
         }
         return itemDtoList;
     }
 
+    private static Map<Long, Booking> bookingListToMapByItemId(List<Booking> bookingList) {
+        Map<Long, Booking> bookingMap = new HashMap<>();
+        for (Booking booking : bookingList) {
+            bookingMap.putIfAbsent(booking.getItem().getId(), booking);
+        }
+        return bookingMap;
+    }
+
+    @Override
+    public List<ItemDto> findItemsByQueryText(String queryText, Integer from, Integer size) {
+        if (queryText.trim().isBlank()) {
+            return new ArrayList<>();
+        }
+        return itemListToDto(findRankedItems(itemSearchIndex.search(queryText, from, size)));
+    }
+
+    @Override
+    public ItemSearchPage findItemPageByQueryText(String queryText, String cursor, Integer size) {
+        if (queryText.trim().isBlank()) {
+            return new ItemSearchPage(new ArrayList<>(), null);
+        }
+        List<ItemSearchCursor> hits = itemSearchIndex.searchAfter(queryText, ItemSearchCursor.decode(cursor), size + 1);
+        // продолжение выдачи определяет индекс: вещь, уже удаленная из базы, не обрывает листание
+        String nextCursor = hits.size() > size ? hits.get(size - 1).encode() : null;
+        List<Item> items = findRankedItems(hits.stream()
+                .limit(size)
+                .map(ItemSearchCursor::getId)
+                .collect(Collectors.toList()));
+        return new ItemSearchPage(itemListToDto(items), nextCursor);
+    }
+
     @Override
-    public List<ItemDto> findItemsByQueryText(String queryText) {
+    public List<Long> findItemIdsByQueryText(String queryText) {
         if (queryText.trim().isBlank()) {
             return new ArrayList<>();
         }
-        return itemListToDto(itemRepository.findItemByAvailableAndQueryContainWithIgnoreCase(queryText));
+        return itemSearchIndex.searchAll(queryText);
+    }
+
+    @Override
+    public List<ItemDto> findItemsByIds(List<Long> itemIds) {
+        return itemListToDto(findRankedItems(itemIds));
+    }
+
+    private List<Item> findRankedItems(List<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        // порядок задает ранжирование индекса
+        Map<Long, Item> items = itemRepository.findAllByIdIn(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, item -> item));
+        return itemIds.stream()
+                .filter(items::containsKey)
+                .map(items::get)
+                .collect(Collectors.toList());
     }
 
     @Override
     public ItemBookingDto findItemBookingById(Long itemId, Long userId) {
         Item item = itemRepository.findById(itemId).orElseThrow(() -> new FoundException("Вещь не найдена"));
         ItemBookingDto itemBookingDto = ItemBookingMapper.itemToDto(item);
-        itemBookingDto.setComments(getCommentDtoList(itemId));
+        itemBookingDto.setComments(commentRepository.findAllCommentDtoByItemId(itemId));
         if (userId.equals(item.getOwner().getId())) {
-            List<Booking> bookingLastDtoList
-                    = bookingRepository.findAllByItemIdAndOrderByStartDesc(itemId, LocalDateTime.now());
-            if (bookingLastDtoList.size() > 0) {
-                itemBookingDto.setLastBooking(getBookingItemDto(bookingLastDtoList.get(0)));
-            }
-            List<Booking> bookingNextDtoList
-                    = bookingRepository.findAllByItemIdOrderByStartAsc(itemId, LocalDateTime.now());
-            if (bookingNextDtoList.size() > 0) {
-                itemBookingDto.setNextBooking(getBookingItemDto(bookingNextDtoList.get(0)));
-            }
+            LocalDateTime now = LocalDateTime.now();
+            bookingRepository.findFirstByItemIdAndStatusAndStartBeforeOrderByStartDesc(itemId, Status.APPROVED, now)
+                    .ifPresent(booking -> itemBookingDto.setLastBooking(getBookingItemDto(booking)));
+            bookingRepository.findFirstByItemIdAndStatusAndStartAfterOrderByStartAsc(itemId, Status.APPROVED, now)
+                    .ifPresent(booking -> itemBookingDto.setNextBooking(getBookingItemDto(booking)));
         }
         return itemBookingDto;
     }
 
+    @Override
+    public String getItemETag(Long itemId, Long userId) {
+        ItemVersion version = itemRepository.findVersionById(itemId)
+                .orElseThrow(() -> new FoundException("Вещь не найдена"));
+        // владельцу показываются последнее и следующее бронирование, они зависят от текущего времени
+        if (userId.equals(version.getOwnerId())) {
+            return null;
+        }
+        // отзывы не редактируются и не удаляются, поэтому достаточно их количества;
+        // имена авторов отражает сумма версий авторов, она растет при каждом изменении пользователя
+        return "\"" + itemId + "-" + version.getVersion() + "-" + version.getCommentCount()
+                + "-" + version.getAuthorVersions() + "\"";
+    }
+
     private static BookingItemDto getBookingItemDto(Booking bookingOutDto) {
         return new BookingItemDto(bookingOutDto.getId(), bookingOutDto.getBooker().getId(),
                 bookingOutDto.getStart(), bookingOutDto.getEnd(), bookingOutDto.getStatus());
@@ -153,7 +245,7 @@ public class ItemServiceImpl implements ItemService {
     @Override
     @Transactional
     public CommentDto addCommentToItem(Long userId, Long itemId, CommentInDto commentInDto) {
-        User user = userRepository.findById(userId).orElseThrow(() -> new FoundException("Пользователь не найден"));
+        UserProfile user = userCache.get(userId);
         Item item = findFullItemById(itemId);
         List<Booking> bookingList = bookingRepository.findAllByItemUserIdAndItemIdOrderByStartDesc(userId, itemId, LocalDateTime.now());
         if (bookingList.size() == 0) {
@@ -166,7 +258,7 @@ public class ItemServiceImpl implements ItemService {
         comment.setCreated(LocalDateTime.now());
         commentRepository.save(comment);
         CommentDto commentDto = CommentMapper.commentToDto(comment);
-        commentDto.setAuthorName(getCommentAuthorName(userId));
+        commentDto.setAuthorName(user.getName());
         return commentDto;
     }
 
@@ -175,20 +267,12 @@ public class ItemServiceImpl implements ItemService {
         return itemRepository.findById(itemId).orElseThrow(() -> new FoundException("Вещь не найдена"));
     }
 
-    private String getCommentAuthorName(Long userId) {
-        User user = userRepository.findById(userId).orElseThrow(() -> new FoundException("Пользователь не найден"));
-        return user.getName();
-    }
-
-    private List<CommentDto> getCommentDtoList(Long itemId) {
-        List<Comment> commentList = commentRepository.findAllByCommentAndItemId(itemId);
-        List<CommentDto> commentDtoList = CommentMapper.commentListToDto(commentList);
-        for (Comment commentList1 : commentList) {
-            for (CommentDto commentDto : commentDtoList) {
-                commentDto.setAuthorName(getCommentAuthorName(commentList1.getAuthorId()));
-            }
+    private Map<Long, List<CommentDto>> getCommentDtoMapByItemId(List<Long> itemIds) {
+        Map<Long, List<CommentDto>> commentDtoMap = new HashMap<>();
+        for (ItemCommentDto itemCommentDto : commentRepository.findAllCommentDtoByItemIdIn(itemIds)) {
+            commentDtoMap.computeIfAbsent(itemCommentDto.getItemId(), id -> new ArrayList<>())
+                    .add(CommentMapper.itemCommentToDto(itemCommentDto));
         }
-        return commentDtoList;
+        return commentDtoMap;
     }
 }
-
@@ -2,11 +2,14 @@ package ru.practicum.shareit.request.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.Constants;
 import ru.practicum.shareit.request.dto.RequestDto;
 import ru.practicum.shareit.request.dto.RequestInDto;
 import ru.practicum.shareit.request.service.RequestService;
+import ru.practicum.shareit.web.Responses;
 
 import java.util.List;
 
@@ -34,10 +37,12 @@ public class ItemRequestController {
     }
 
     @GetMapping("{requestId}")
-    public RequestDto getRequestById(@RequestHeader(name = "X-Sharer-User-Id") Long userId,
-                                     @PathVariable Long requestId) {
+    public ResponseEntity<RequestDto> getRequestById(@RequestHeader(name = "X-Sharer-User-Id") Long userId,
+                                                     @PathVariable Long requestId,
+                                                     WebRequest webRequest) {
         log.info("GET /requests/{} - информация о запросе", userId);
-        return requestService.getRequestById(userId, requestId);
+        return Responses.conditional(webRequest, requestService.getRequestETag(userId, requestId),
+                () -> requestService.getRequestById(userId, requestId));
     }
 
     @GetMapping("all")
@@ -0,0 +1,11 @@
+package ru.practicum.shareit.request.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class RequestVersion {
+    private Long itemCount;
+    private Long itemVersionSum;
+}
@@ -2,14 +2,23 @@ package ru.practicum.shareit.request.repository;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.request.dto.RequestVersion;
 import ru.practicum.shareit.request.model.ItemRequest;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface RequestRepository extends JpaRepository<ItemRequest, Long> {
 
     List<ItemRequest> findAllByRequestorId(Pageable pageable, Long requestorId);
 
     List<ItemRequest> findAllByRequestorIdNotOrderByCreatedDesc(Pageable pageable, Long requestorId);
-}
 
+    @Query("select new ru.practicum.shareit.request.dto.RequestVersion(count(i.id), coalesce(sum(i.version), 0L)) " +
+            "from ItemRequest r " +
+            "left join r.items i " +
+            "where r.id = ?1 " +
+            "group by r.id")
+    Optional<RequestVersion> findVersionById(Long requestId);
+}
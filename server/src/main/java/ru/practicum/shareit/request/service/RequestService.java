@@ -12,5 +12,7 @@ public interface RequestService {
 
     RequestDto getRequestById(Long userId, Long requestId);
 
+    String getRequestETag(Long userId, Long requestId);
+
     List<RequestDto> getPageableRequestByUserId(Long userId, Integer from, Integer size);
 }
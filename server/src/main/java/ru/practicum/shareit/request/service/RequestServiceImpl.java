@@ -8,11 +8,12 @@ import ru.practicum.shareit.exception.FoundException;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.request.dto.RequestDto;
 import ru.practicum.shareit.request.dto.RequestInDto;
+import ru.practicum.shareit.request.dto.RequestVersion;
 import ru.practicum.shareit.request.mapper.RequestMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.RequestRepository;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserCache;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -22,18 +23,19 @@ import java.util.List;
 @RequiredArgsConstructor
 public class RequestServiceImpl implements RequestService {
     private final RequestRepository requestRepository;
-    private final UserRepository userRepository;
+    private final UserCache userCache;
 
 
     @Override
     public RequestDto createItemRequest(Long userId, RequestInDto requestInDto) {
-        User user = checkUserExist(userId);
+        User user = userCache.getReference(userId);
         ItemRequest request = RequestMapper.dtoToItemRequest(requestInDto);
         request.setCreated(LocalDateTime.now());
         request.setRequestor(user);
-        request = requestRepository.save(request);
+        ItemRequest saved = userCache.saveReferencing(userId, "fk_requests_to_users",
+                () -> requestRepository.save(request));
 
-        return RequestMapper.requestToDto(request);
+        return RequestMapper.requestToDto(saved);
     }
 
     @Override
@@ -64,6 +66,15 @@ public class RequestServiceImpl implements RequestService {
         return requestDto;
     }
 
+    @Override
+    public String getRequestETag(Long userId, Long requestId) {
+        checkUserExist(userId);
+        RequestVersion version = requestRepository.findVersionById(requestId)
+                .orElseThrow(() -> new FoundException("Запрос не найден"));
+        // сам запрос не меняется, меняются только вещи, добавленные в ответ на него
+        return "\"" + requestId + "-" + version.getItemCount() + "-" + version.getItemVersionSum() + "\"";
+    }
+
     @Override
     public List<RequestDto> getPageableRequestByUserId(Long userId, Integer from, Integer size) {
         checkUserExist(userId);
@@ -81,7 +92,7 @@ public class RequestServiceImpl implements RequestService {
         return requestInDtoList;
     }
 
-    private User checkUserExist(Long userId) {
-        return userRepository.findUserById(userId).orElseThrow(() -> new FoundException("Пользователь не найден"));
+    private void checkUserExist(Long userId) {
+        userCache.get(userId);
     }
 }
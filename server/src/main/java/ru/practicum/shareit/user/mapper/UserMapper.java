@@ -1,6 +1,7 @@
 package ru.practicum.shareit.user.mapper;
 
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserProfile;
 import ru.practicum.shareit.user.model.User;
 
 
@@ -13,6 +14,10 @@ public class UserMapper {
         return userDto;
     }
 
+    public static UserDto profileToDto(UserProfile user) {
+        return new UserDto(user.getId(), user.getName(), user.getEmail());
+    }
+
     public static User dtoToUser(UserDto userDto) {
         User user = new User();
         user.setId(userDto.getId());
@@ -20,4 +20,7 @@ public class User {
     private String name;
     @Column(name = "email")
     private String email;
+    @Version
+    @Column(name = "version")
+    private Long version;
 }
@@ -1,6 +1,8 @@
 package ru.practicum.shareit.user.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.user.dto.UserProfile;
 import ru.practicum.shareit.user.model.User;
 
 import java.util.Optional;
@@ -9,5 +11,8 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findUserByEmail(String email);
 
     Optional<User> findUserById(Long id);
+
+    @Query("select new ru.practicum.shareit.user.dto.UserProfile(u.id, u.name, u.email) from User u where u.id = ?1")
+    Optional<UserProfile> findProfileById(Long id);
 }
 
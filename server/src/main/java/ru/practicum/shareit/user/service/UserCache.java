@@ -0,0 +1,121 @@
+package ru.practicum.shareit.user.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.exception.FoundException;
+import ru.practicum.shareit.user.dto.UserProfile;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.Locale;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+// почти каждый метод сервисов начинается с проверки пользователя из X-Sharer-User-Id, поэтому пользователи
+// кэшируются по id. Отсутствие пользователя тоже кэшируется, но на меньший срок negative-ttl.
+// Кэш у каждого экземпляра сервера свой: изменение через другой экземпляр видно здесь не позже чем через ttl
+@Component
+@EnableConfigurationProperties(UserCacheProperties.class)
+public class UserCache implements MeterBinder {
+    private static final String CACHE_NAME = "users";
+
+    private final UserRepository userRepository;
+    private final Cache<Long, Optional<UserProfile>> cache;
+
+    public UserCache(UserRepository userRepository, UserCacheProperties properties) {
+        this.userRepository = userRepository;
+        long ttlNanos = properties.getTtl().toNanos();
+        long negativeTtlNanos = properties.getNegativeTtl().toNanos();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSize())
+                .expireAfter(new Expiry<Long, Optional<UserProfile>>() {
+                    @Override
+                    public long expireAfterCreate(Long userId, Optional<UserProfile> user, long currentTime) {
+                        return user.isPresent() ? ttlNanos : negativeTtlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Long userId, Optional<UserProfile> user, long currentTime,
+                                                  long currentDuration) {
+                        return expireAfterCreate(userId, user, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(Long userId, Optional<UserProfile> user, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    public Optional<UserProfile> find(Long userId) {
+        return cache.get(userId, userRepository::findProfileById);
+    }
+
+    public UserProfile get(Long userId) {
+        return find(userId).orElseThrow(() -> new FoundException("Пользователь не найден"));
+    }
+
+    // для связей сущностей: существование проверено по кэшу, сам пользователь из базы не загружается
+    public User getReference(Long userId) {
+        get(userId);
+        return userRepository.getReferenceById(userId);
+    }
+
+    // сохранение сущности со ссылкой из getReference: пользователь мог быть удален через другой экземпляр сервера,
+    // пока числился в кэше этого, - тогда вставка нарушает внешний ключ userForeignKey, и ответ тот же, что при
+    // промахе кэша. Остальные нарушения целостности пробрасываются как есть. Проверить пользователя запросом
+    // здесь нельзя: после ошибки транзакция PostgreSQL уже прервана, поэтому смотрится имя ограничения
+    public <T> T saveReferencing(Long userId, String userForeignKey, Supplier<T> save) {
+        try {
+            return save.get();
+        } catch (DataIntegrityViolationException e) {
+            if (!violates(e, userForeignKey)) {
+                throw e;
+            }
+            evict(userId);
+            throw new FoundException("Пользователь не найден");
+        }
+    }
+
+    // имя ограничения есть в сообщении и PostgreSQL, и H2 (в H2 - в верхнем регистре)
+    private static boolean violates(DataIntegrityViolationException e, String constraint) {
+        String message = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+        return message != null && message.toLowerCase(Locale.ROOT).contains(constraint.toLowerCase(Locale.ROOT));
+    }
+
+    public void evict(Long userId) {
+        cache.invalidate(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // до фиксации транзакции параллельный запрос мог снова закэшировать прежние данные
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(userId);
+                }
+            });
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME);
+        Gauge.builder("cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .tag("cache", CACHE_NAME)
+                .description("Доля запросов, обслуженных из кэша")
+                .register(registry);
+    }
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.user.service;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.user-cache")
+public class UserCacheProperties {
+    private long maxSize = 10_000;
+    private Duration ttl = Duration.ofSeconds(30);
+    // отсутствие пользователя помнится недолго
+    private Duration negativeTtl = Duration.ofSeconds(10);
+}
@@ -13,13 +13,13 @@ import javax.transaction.Transactional;
 import java.security.InvalidParameterException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 @org.springframework.transaction.annotation.Transactional(readOnly = true)
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
+    private final UserCache userCache;
 
     @Override
     public List<UserDto> findAll() {
@@ -44,16 +44,16 @@ public class UserServiceImpl implements UserService {
             throw new InvalidParameterException("Пустой адрес электронной почты");
         }
         User user = userRepository.save(UserMapper.dtoToUser(userDto));
+        // за новым id в кэше может числиться отсутствующий пользователь
+        userCache.evict(user.getId());
         return UserMapper.userToDto(user);
     }
 
     @Override
     public UserDto findUserById(Long userId) {
-        Optional<User> user = userRepository.findById(userId);
-        if (user.isEmpty()) {
-            throw new FoundException("Такого пользователя нет в базе");
-        }
-        return UserMapper.userToDto(user.get());
+        return userCache.find(userId)
+                .map(UserMapper::profileToDto)
+                .orElseThrow(() -> new FoundException("Такого пользователя нет в базе"));
     }
 
     @Override
@@ -71,6 +71,7 @@ public class UserServiceImpl implements UserService {
             updateUser.setName(userDto.getName());
         }
         User user = userRepository.save(updateUser);
+        userCache.evict(userId);
         return UserMapper.userToDto(user);
     }
 
@@ -78,6 +79,7 @@ public class UserServiceImpl implements UserService {
     @Transactional
     public void deleteUserById(Long userId) {
         userRepository.deleteById(userId);
+        userCache.evict(userId);
     }
 
 }
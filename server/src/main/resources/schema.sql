@@ -3,10 +3,14 @@ CREATE TABLE IF NOT EXISTS users (
   id BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
   name VARCHAR(255) NOT NULL,
   email VARCHAR(512) NOT NULL,
+  version BIGINT NOT NULL DEFAULT 0,
   CONSTRAINT pk_user PRIMARY KEY (id),
   CONSTRAINT UQ_USER_EMAIL UNIQUE (email)
 );
 
+-- версия пользователя входит в ETag бронирований и вещей, где показывается его имя
+ALTER TABLE users ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
 CREATE TABLE IF NOT EXISTS items
 (
     id           BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
@@ -15,9 +19,15 @@ CREATE TABLE IF NOT EXISTS items
     is_available BOOLEAN,
     owner_id     BIGINT,
     request_id   BIGINT,
+    version      BIGINT NOT NULL DEFAULT 0,
     CONSTRAINT fk_items_to_users FOREIGN KEY(owner_id) REFERENCES users(id)
 );
 
+-- версия вещи появилась позже самой таблицы
+ALTER TABLE items ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+CREATE INDEX IF NOT EXISTS idx_items_owner ON items (owner_id);
+
 CREATE TABLE IF NOT EXISTS bookings
 (
     id         BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
@@ -30,6 +40,10 @@ CREATE TABLE IF NOT EXISTS bookings
      CONSTRAINT fk_bookings_to_items FOREIGN KEY(item_id) REFERENCES items(id)
 );
 
+CREATE INDEX IF NOT EXISTS idx_bookings_item_status_start ON bookings (item_id, status, start_date);
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start ON bookings (booker_id, start_date DESC);
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_status_start ON bookings (booker_id, status, start_date DESC);
+
 CREATE TABLE IF NOT EXISTS requests
 (
     id           BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
@@ -50,3 +64,5 @@ CREATE TABLE IF NOT EXISTS comments
     CONSTRAINT fk_comments_to_users FOREIGN KEY(author_id) REFERENCES users(id),
     CONSTRAINT fk_comments_to_items FOREIGN KEY(item_id) REFERENCES items(id)
 );
+
+CREATE INDEX IF NOT EXISTS idx_comments_item ON comments (item_id);
@@ -0,0 +1,101 @@
+package ru.practicum.shareit;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.config.VirtualThreads;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// запуск на Java 21+: mvn test -pl server -Dtest=ThreadModeBenchmarkTest -Dbenchmark=true
+// для сравнения на Postgres дополнительно передать -Dspring.profiles.active= и параметры подключения
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ThreadModeBenchmarkTest {
+    private static final int CLIENTS = 200;
+    private static final int REQUESTS_PER_CLIENT = 100;
+    private static final int WARMUP_REQUESTS_PER_CLIENT = 10;
+
+    @Test
+    void compareThroughputTest() throws Exception {
+        Assumptions.assumeTrue(VirtualThreads.isAvailable(), "Виртуальные потоки требуют Java 21+");
+
+        double platform = measureThroughput("platform");
+        double virtual = measureThroughput("virtual");
+
+        System.out.printf("Пропускная способность: platform=%d запр/с, virtual=%d запр/с%n",
+                Math.round(platform), Math.round(virtual));
+        Assertions.assertThat(virtual).isPositive();
+    }
+
+    private double measureThroughput(String mode) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ShareItServer.class)
+                .run("--server.port=0",
+                        "--shareit.threads.mode=" + mode,
+                        "--spring.jpa.properties.hibernate.show_sql=false",
+                        "--logging.level.org.springframework.orm.jpa=WARN",
+                        "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN",
+                        "--logging.level.org.springframework.transaction=WARN",
+                        "--logging.level.org.springframework.transaction.interceptor=WARN")) {
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            HttpClient httpClient = HttpClient.newHttpClient();
+            HttpResponse<String> created = httpClient.send(HttpRequest.newBuilder(URI.create(baseUrl + "/users"))
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(
+                                    "{\"name\":\"user\",\"email\":\"user@example.com\"}"))
+                            .build(),
+                    HttpResponse.BodyHandlers.ofString());
+            Assertions.assertThat(created.statusCode()).isEqualTo(200);
+            URI target = URI.create(baseUrl + "/bookings?state=ALL");
+
+            runClients(httpClient, target, WARMUP_REQUESTS_PER_CLIENT);
+            long startNanos = System.nanoTime();
+            long failed = runClients(httpClient, target, REQUESTS_PER_CLIENT);
+            double seconds = (System.nanoTime() - startNanos) / 1_000_000_000.0;
+            // Spring останавливает logback при закрытии контекста, поэтому результат выводится напрямую
+            System.out.printf("Режим %s: %d запросов за %.2f с, неуспешных %d%n",
+                    mode, CLIENTS * REQUESTS_PER_CLIENT, seconds, failed);
+            return (CLIENTS * REQUESTS_PER_CLIENT - failed) / seconds;
+        }
+    }
+
+    // возвращает число неуспешных запросов: при нехватке соединений с базой сервер отвечает 500 или 503
+    private static long runClients(HttpClient httpClient, URI target, int requestsPerClient) throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        try {
+            List<Future<Integer>> failures = new ArrayList<>();
+            for (int i = 0; i < CLIENTS; i++) {
+                failures.add(clients.submit(() -> {
+                    int failed = 0;
+                    HttpRequest request = HttpRequest.newBuilder(target)
+                            .header("X-Sharer-User-Id", "1")
+                            .GET()
+                            .build();
+                    for (int j = 0; j < requestsPerClient; j++) {
+                        if (httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() != 200) {
+                            failed++;
+                        }
+                    }
+                    return failed;
+                }));
+            }
+            long failed = 0;
+            for (Future<Integer> clientFailures : failures) {
+                failed += clientFailures.get();
+            }
+            return failed;
+        } finally {
+            clients.shutdown();
+        }
+    }
+}
@@ -7,11 +7,14 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.Constants;
 import ru.practicum.shareit.booking.controller.BookingController;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingOutDto;
+import ru.practicum.shareit.booking.dto.BookingPage;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.exception.AccessException;
@@ -22,6 +25,8 @@ import java.util.List;
 
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -121,6 +126,22 @@ class BookingControllerTest {
                 .andExpect(content().json(mapper.writeValueAsString(bookingDto)));
     }
 
+    @Test
+    void findBookingByIdNotModifiedTest() throws Exception {
+        when(bookingService.getBookingETag(anyLong(), anyLong()))
+                .thenReturn("\"1-APPROVED-0\"");
+
+        mockMvc.perform(get("/bookings/{bookingId}", 1L)
+                        .header("X-Sharer-User-Id", 1L)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"1-APPROVED-0\"")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-APPROVED-0\""))
+                .andExpect(content().string(""));
+
+        verify(bookingService, never()).findBookingById(anyLong(), anyLong());
+    }
+
     @Test
     void findAllBookingByUserAndStateNormalTest() throws Exception {
         List<BookingOutDto> bookingDtoList = List.of(bookingDto);
@@ -178,4 +199,36 @@ class BookingControllerTest {
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isBadRequest());
     }
+
+    @Test
+    void findBookingPageByUserAndStateNormalTest() throws Exception {
+        when(bookingService.findBookingPageByUserAndState(anyLong(), anyString(), anyString(), anyInt()))
+                .thenReturn(new BookingPage(List.of(bookingDto), "next"));
+
+        mockMvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("cursor", "")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(Constants.NEXT_CURSOR_HEADER, "next"))
+                .andExpect(content().json(mapper.writeValueAsString(List.of(bookingDto))));
+    }
+
+    @Test
+    void findBookingPageByOwnerAndStateLastPageTest() throws Exception {
+        when(bookingService.findBookingPageByOwnerAndState(anyLong(), anyString(), anyString(), anyInt()))
+                .thenReturn(new BookingPage(List.of(bookingDto), null));
+
+        mockMvc.perform(get("/bookings/owner")
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("cursor", "abc")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(Constants.NEXT_CURSOR_HEADER))
+                .andExpect(content().json(mapper.writeValueAsString(List.of(bookingDto))));
+    }
 }
@@ -0,0 +1,139 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.assertj.core.api.Assertions;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@Transactional
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@SpringBootTest
+class BookingIndexUsageTest {
+
+    private static final List<String> STATES = List.of("ALL", "CURRENT", "PAST", "FUTURE", "REJECTED", "WAITING");
+    private static final Pattern INDEX_LOOKUP = Pattern.compile("/\\* PUBLIC\\.\\w+: (.*?)\\*/", Pattern.DOTALL);
+
+    private final EntityManager em;
+    private final BookingService bookingService;
+    private final SqlRecorder sqlRecorder;
+    private final JdbcTemplate jdbcTemplate;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = User.builder().name("user").email("user@example.com").build();
+        em.persist(user);
+        em.flush();
+    }
+
+    @Test
+    void bookerStateQueriesUseIndexTest() {
+        for (String state : STATES) {
+            sqlRecorder.clear();
+            bookingService.findAllBookingByUserAndState(user.getId(), state, 0, 20);
+
+            String plan = explain(findBookingListSql("booker_id=?"));
+            String indexLookups = getIndexLookups(plan);
+
+            Assertions.assertThat(plan).as("plan for booker state %s", state)
+                    .doesNotContainIgnoringCase("tableScan");
+            Assertions.assertThat(indexLookups).as("index lookup for booker state %s", state)
+                    .contains("BOOKER_ID = ?");
+        }
+    }
+
+    @Test
+    void ownerStateQueriesUseIndexTest() {
+        for (String state : STATES) {
+            sqlRecorder.clear();
+            bookingService.findAllBookingByOwnerAndState(user.getId(), state, 0, 20);
+
+            String plan = explain(findBookingListSql("owner_id=?"));
+            String indexLookups = getIndexLookups(plan);
+
+            Assertions.assertThat(plan).as("plan for owner state %s", state)
+                    .doesNotContainIgnoringCase("tableScan");
+            Assertions.assertThat(indexLookups).as("index lookup for owner state %s", state)
+                    .contains("OWNER_ID = ?")
+                    .contains("ITEM_ID = ");
+        }
+    }
+
+    private static String getIndexLookups(String plan) {
+        StringBuilder lookups = new StringBuilder();
+        Matcher matcher = INDEX_LOOKUP.matcher(plan);
+        while (matcher.find()) {
+            lookups.append(matcher.group(1).replaceAll("\\s+", " ")).append('\n');
+        }
+        return lookups.toString();
+    }
+
+    private String findBookingListSql(String predicate) {
+        return sqlRecorder.getStatements().stream()
+                .filter(sql -> sql.contains("from bookings") && sql.contains(predicate))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("Запрос списка бронирований не выполнялся"));
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.execute((Connection connection) -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql);
+                 ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                return resultSet.getString(1);
+            }
+        });
+    }
+
+    @TestConfiguration
+    static class SqlRecorderConfig {
+        @Bean
+        SqlRecorder sqlRecorder() {
+            return new SqlRecorder();
+        }
+
+        @Bean
+        HibernatePropertiesCustomizer sqlRecorderCustomizer(SqlRecorder sqlRecorder) {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, sqlRecorder);
+        }
+    }
+
+    static class SqlRecorder implements StatementInspector {
+        private final List<String> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+
+        List<String> getStatements() {
+            return statements;
+        }
+
+        void clear() {
+            statements.clear();
+        }
+    }
+}
@@ -4,9 +4,14 @@ import lombok.RequiredArgsConstructor;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.BookingOutDto;
+import ru.practicum.shareit.booking.dto.BookingPage;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.booking.service.BookingService;
@@ -15,15 +20,23 @@ import ru.practicum.shareit.user.model.User;
 
 import javax.persistence.EntityManager;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
 @Transactional
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
 @SpringBootTest
+@AutoConfigureMockMvc
 public class BookingIntegrationTest {
 
     private final EntityManager em;
     private final BookingService bookingService;
+    private final MockMvc mockMvc;
 
     @Test
     void test_getAllBookingsForOwner() {
@@ -83,4 +96,107 @@ public class BookingIntegrationTest {
         List<BookingOutDto> list6 = bookingService.findAllBookingByUserAndState(booker.getId(), "WAITING", 0, 20);
         Assertions.assertThat(list6).isNotEmpty().hasSize(1);
     }
+
+    @Test
+    void test_getBookingPagesByCursor() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        User owner = User.builder().name("owner").email("owner@example.com").build();
+        em.persist(owner);
+        User booker = User.builder().name("booker").email("booker@example.com").build();
+        em.persist(booker);
+        Item item = Item.builder()
+                .name("молоток").description("хороший молоток").available(true)
+                .owner(owner).build();
+        em.persist(item);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            // у трех последних бронирований одинаковое начало
+            Booking booking = Booking.builder()
+                    .item(item).booker(booker).status(Status.WAITING)
+                    .start(start.plusHours(Math.min(i, 2))).end(start.plusDays(1))
+                    .build();
+            em.persist(booking);
+            ids.add(booking.getId());
+        }
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = "";
+        int pages = 0;
+        do {
+            BookingPage page = bookingService.findBookingPageByOwnerAndState(owner.getId(), "ALL", cursor, 2);
+            page.getBookings().forEach(booking -> seen.add(booking.getId()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        Assertions.assertThat(pages).isEqualTo(3);
+        Assertions.assertThat(seen)
+                .containsExactly(ids.get(4), ids.get(3), ids.get(2), ids.get(1), ids.get(0));
+    }
+
+    @Test
+    void test_getBookingsFromNotMultipleOfSize() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        User owner = User.builder().name("owner").email("owner@example.com").build();
+        em.persist(owner);
+        User booker = User.builder().name("booker").email("booker@example.com").build();
+        em.persist(booker);
+        Item item = Item.builder()
+                .name("молоток").description("хороший молоток").available(true)
+                .owner(owner).build();
+        em.persist(item);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Booking booking = Booking.builder()
+                    .item(item).booker(booker).status(Status.WAITING)
+                    .start(start.plusHours(i)).end(start.plusDays(1))
+                    .build();
+            em.persist(booking);
+            ids.add(booking.getId());
+        }
+
+        List<BookingOutDto> list = bookingService.findAllBookingByUserAndState(booker.getId(), "ALL", 1, 2);
+
+        Assertions.assertThat(list).extracting(BookingOutDto::getId)
+                .containsExactly(ids.get(1), ids.get(0));
+    }
+
+    @Test
+    void test_bookingETagChangesWhenBookerRenamed() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        User owner = User.builder().name("owner").email("owner@example.com").build();
+        em.persist(owner);
+        User booker = User.builder().name("booker").email("booker@example.com").build();
+        em.persist(booker);
+        Item item = Item.builder()
+                .name("молоток").description("хороший молоток").available(true)
+                .owner(owner).build();
+        em.persist(item);
+        Booking booking = Booking.builder()
+                .item(item).booker(booker).status(Status.WAITING)
+                .start(start).end(start.plusDays(1))
+                .build();
+        em.persist(booking);
+
+        String eTag = mockMvc.perform(get("/bookings/{bookingId}", booking.getId())
+                        .header("X-Sharer-User-Id", owner.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        Assertions.assertThat(eTag).isNotNull();
+        mockMvc.perform(get("/bookings/{bookingId}", booking.getId())
+                        .header("X-Sharer-User-Id", owner.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(patch("/users/{userId}", booker.getId())
+                        .content("{\"name\":\"renamed\"}")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/bookings/{bookingId}", booking.getId())
+                        .header("X-Sharer-User-Id", owner.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.booker.name").value("renamed"));
+    }
 }
@@ -3,12 +3,16 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import org.assertj.core.api.Assertions;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
-import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingOutDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingRole;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.item.model.Item;
@@ -17,7 +21,7 @@ import ru.practicum.shareit.user.model.User;
 import java.time.LocalDateTime;
 import java.util.List;
 
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
 class BookingRepositoryTest {
 
@@ -28,7 +32,7 @@ class BookingRepositoryTest {
 
 
     @Test
-    void findByIdAndBookerOrOwnerTest() {
+    void findWithItemAndBookerByIdTest() {
         User owner = User.builder().name("owner").email("owner@example.com").build();
         tem.persist(owner);
         Item item = Item.builder()
@@ -43,29 +47,78 @@ class BookingRepositoryTest {
                 .status(Status.APPROVED)
                 .build();
         tem.persist(booking);
+        tem.flush();
+        tem.clear();
+        Statistics statistics = tem.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
 
-        // By Owner
-        Booking bookingReturned = bookingRepository
-                .findByIdAndBookerOrOwner(booking.getId(), owner.getId()).orElse(null);
-        Assertions.assertThat(bookingReturned).isNotNull()
-                .isEqualTo(booking);
-
-        // By Owner
-        Booking bookingReturned2 = bookingRepository
-                .findByIdAndBookerOrOwner(booking.getId(), booker.getId()).orElse(null);
-        Assertions.assertThat(bookingReturned2).isNotNull()
-                .isEqualTo(booking);
+        Booking bookingReturned = bookingRepository.findWithItemAndBookerById(booking.getId()).orElse(null);
 
+        Assertions.assertThat(bookingReturned).isNotNull();
+        Assertions.assertThat(bookingReturned.getItem().getOwner().getId()).isEqualTo(owner.getId());
+        Assertions.assertThat(bookingReturned.getBooker().getName()).isEqualTo("booker");
+        Assertions.assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
 
         // Wrong BookingId
-        Booking bookingReturned3 = bookingRepository
-                .findByIdAndBookerOrOwner(99L, owner.getId()).orElse(null);
-        Assertions.assertThat(bookingReturned3).isNull();
-
-        // Wrong BookerId or OwnerId
-        Booking bookingReturned4 = bookingRepository
-                .findByIdAndBookerOrOwner(booking.getId(), 99L).orElse(null);
-        Assertions.assertThat(bookingReturned4).isNull();
+        Assertions.assertThat(bookingRepository.findWithItemAndBookerById(99L)).isEmpty();
+    }
+
+    @Test
+    void updateStatusIfWaitingTest() {
+        User owner = User.builder().name("owner").email("owner@example.com").build();
+        tem.persist(owner);
+        Item item = Item.builder()
+                .name("молоток").description("стальной молоток").available(true)
+                .owner(owner).build();
+        tem.persist(item);
+        User booker = User.builder().name("booker").email("booker@example.com").build();
+        tem.persist(booker);
+        Booking booking = Booking.builder()
+                .item(item).booker(booker)
+                .start(now.plusDays(3)).end(now.plusDays(5))
+                .status(Status.WAITING)
+                .build();
+        tem.persist(booking);
+        tem.flush();
+
+        int approved = bookingRepository.updateStatusIfWaiting(booking.getId(), Status.APPROVED);
+        int rejected = bookingRepository.updateStatusIfWaiting(booking.getId(), Status.REJECTED);
+        tem.clear();
+
+        Assertions.assertThat(approved).isEqualTo(1);
+        Assertions.assertThat(rejected).isZero();
+        Assertions.assertThat(tem.find(Booking.class, booking.getId()).getStatus()).isEqualTo(Status.APPROVED);
+    }
+
+    @Test
+    void findAllFutureStartingNowTest() {
+        LocalDateTime startsNow = now.withNano(0);
+        User owner = User.builder().name("owner").email("owner@example.com").build();
+        tem.persist(owner);
+        Item item = Item.builder()
+                .name("молоток").description("крепкий молоток").available(true)
+                .owner(owner).build();
+        tem.persist(item);
+        User booker = User.builder().name("booker").email("booker@example.com").build();
+        tem.persist(booker);
+        Booking booking = Booking.builder()
+                .item(item).booker(booker)
+                .start(startsNow).end(startsNow.plusDays(2))
+                .status(Status.APPROVED)
+                .build();
+        tem.persist(booking);
+
+        List<BookingOutDto> ownerFuture = bookingRepository
+                .findAllByRoleAndState(BookingRole.OWNER, owner.getId(), "FUTURE", startsNow, null, 0, 10);
+        List<BookingOutDto> bookerFuture = bookingRepository
+                .findAllByRoleAndState(BookingRole.BOOKER, booker.getId(), "FUTURE", startsNow, null, 0, 10);
+        List<BookingOutDto> ownerCurrent = bookingRepository
+                .findAllByRoleAndState(BookingRole.OWNER, owner.getId(), "CURRENT", startsNow, null, 0, 10);
+
+        Assertions.assertThat(ownerFuture).extracting(BookingOutDto::getId).containsExactly(booking.getId());
+        Assertions.assertThat(bookerFuture).isEmpty();
+        Assertions.assertThat(ownerCurrent).extracting(BookingOutDto::getId).containsExactly(booking.getId());
     }
 
     @Test
@@ -85,12 +138,10 @@ class BookingRepositoryTest {
                 .build();
         tem.persist(booking);
 
-        PageRequest page = PageRequest.of(0, 1);
-
-        List<Booking> bookingRet = bookingRepository
-                .findAllByBookerIdAndStatusRejectedOrderByStartDesc(page, booker.getId());
-        Assertions.assertThat(bookingRet.get(0)).isNotNull()
-                .isEqualTo(booking);
+        List<BookingOutDto> bookingRet = bookingRepository
+                .findAllByRoleAndState(BookingRole.BOOKER, booker.getId(), "REJECTED", now, null, 0, 1);
+        Assertions.assertThat(bookingRet).hasSize(1)
+                .first().extracting(BookingOutDto::getId).isEqualTo(booking.getId());
     }
 
     @Test
@@ -110,12 +161,10 @@ class BookingRepositoryTest {
                 .build();
         tem.persist(booking);
 
-        PageRequest page = PageRequest.of(0, 1);
-
-        List<Booking> bookingRet = bookingRepository
-                .findAllByBookerIdAndStatusWaitingOrderByStartDesc(page, booker.getId());
-        Assertions.assertThat(bookingRet.get(0)).isNotNull()
-                .isEqualTo(booking);
+        List<BookingOutDto> bookingRet = bookingRepository
+                .findAllByRoleAndState(BookingRole.BOOKER, booker.getId(), "WAITING", now, null, 0, 1);
+        Assertions.assertThat(bookingRet).hasSize(1)
+                .first().extracting(BookingOutDto::getId).isEqualTo(booking.getId());
     }
 
     @Test
@@ -135,12 +184,10 @@ class BookingRepositoryTest {
                 .build();
         tem.persist(booking);
 
-        PageRequest page = PageRequest.of(0, 1);
-
-        List<Booking> bookingRet = bookingRepository
-                .findAllByBookerIdByDateIntoPeriodOrderByStartDesc(page, booker.getId(), now);
-        Assertions.assertThat(bookingRet.get(0)).isNotNull()
-                .isEqualTo(booking);
+        List<BookingOutDto> bookingRet = bookingRepository
+                .findAllByRoleAndState(BookingRole.BOOKER, booker.getId(), "CURRENT", now, null, 0, 1);
+        Assertions.assertThat(bookingRet).hasSize(1)
+                .first().extracting(BookingOutDto::getId).isEqualTo(booking.getId());
     }
 
     @Test
@@ -160,12 +207,10 @@ class BookingRepositoryTest {
                 .build();
         tem.persist(booking);
 
-        PageRequest page = PageRequest.of(0, 1);
-
-        List<Booking> bookingRet = bookingRepository
-                .findAllByItemOwnerOrderByStartDesc(page, owner.getId());
-        Assertions.assertThat(bookingRet.get(0)).isNotNull()
-                .isEqualTo(booking);
+        List<BookingOutDto> bookingRet = bookingRepository
+                .findAllByRoleAndState(BookingRole.OWNER, owner.getId(), "ALL", now, null, 0, 1);
+        Assertions.assertThat(bookingRet).hasSize(1)
+                .first().extracting(BookingOutDto::getId).isEqualTo(booking.getId());
     }
 
     @Test
@@ -185,12 +230,10 @@ class BookingRepositoryTest {
                 .build();
         tem.persist(booking);
 
-        PageRequest page = PageRequest.of(0, 1);
-
-        List<Booking> bookingRet = bookingRepository
-                .findAllByItemOwnerAndStartIsAfterOrderByStartDesc(page, owner.getId(), now);
-        Assertions.assertThat(bookingRet.get(0)).isNotNull()
-                .isEqualTo(booking);
+        List<BookingOutDto> bookingRet = bookingRepository
+                .findAllByRoleAndState(BookingRole.OWNER, owner.getId(), "FUTURE", now, null, 0, 1);
+        Assertions.assertThat(bookingRet).hasSize(1)
+                .first().extracting(BookingOutDto::getId).isEqualTo(booking.getId());
     }
 
     @Test
@@ -210,12 +253,10 @@ class BookingRepositoryTest {
                 .build();
         tem.persist(booking);
 
-        PageRequest page = PageRequest.of(0, 1);
-
-        List<Booking> bookingRet = bookingRepository
-                .findAllByItemOwnerAndStateRejectedOrderByStartDesc(page, owner.getId());
-        Assertions.assertThat(bookingRet.get(0)).isNotNull()
-                .isEqualTo(booking);
+        List<BookingOutDto> bookingRet = bookingRepository
+                .findAllByRoleAndState(BookingRole.OWNER, owner.getId(), "REJECTED", now, null, 0, 1);
+        Assertions.assertThat(bookingRet).hasSize(1)
+                .first().extracting(BookingOutDto::getId).isEqualTo(booking.getId());
     }
 
     @Test
@@ -235,12 +276,10 @@ class BookingRepositoryTest {
                 .build();
         tem.persist(booking);
 
-        PageRequest page = PageRequest.of(0, 1);
-
-        List<Booking> bookingRet = bookingRepository
-                .findAllByItemOwnerAndStateWaitingOrderByStartDesc(page, owner.getId());
-        Assertions.assertThat(bookingRet.get(0)).isNotNull()
-                .isEqualTo(booking);
+        List<BookingOutDto> bookingRet = bookingRepository
+                .findAllByRoleAndState(BookingRole.OWNER, owner.getId(), "WAITING", now, null, 0, 1);
+        Assertions.assertThat(bookingRet).hasSize(1)
+                .first().extracting(BookingOutDto::getId).isEqualTo(booking.getId());
     }
 
     @Test
@@ -260,12 +299,10 @@ class BookingRepositoryTest {
                 .build();
         tem.persist(booking);
 
-        PageRequest page = PageRequest.of(0, 1);
-
-        List<Booking> bookingRet = bookingRepository
-                .findAllByItemOwnerByDateIntoPeriodOrderByStartDesc(page, owner.getId(), now);
-        Assertions.assertThat(bookingRet.get(0)).isNotNull()
-                .isEqualTo(booking);
+        List<BookingOutDto> bookingRet = bookingRepository
+                .findAllByRoleAndState(BookingRole.OWNER, owner.getId(), "CURRENT", now, null, 0, 1);
+        Assertions.assertThat(bookingRet).hasSize(1)
+                .first().extracting(BookingOutDto::getId).isEqualTo(booking.getId());
     }
 
     @Test
@@ -285,12 +322,10 @@ class BookingRepositoryTest {
                 .build();
         tem.persist(booking);
 
-        PageRequest page = PageRequest.of(0, 1);
-
-        List<Booking> bookingRet = bookingRepository
-                .findAllByItemOwnerAndEndIsBeforeOrderByStartDesc(page, owner.getId(), now);
-        Assertions.assertThat(bookingRet.get(0)).isNotNull()
-                .isEqualTo(booking);
+        List<BookingOutDto> bookingRet = bookingRepository
+                .findAllByRoleAndState(BookingRole.OWNER, owner.getId(), "PAST", now, null, 0, 1);
+        Assertions.assertThat(bookingRet).hasSize(1)
+                .first().extracting(BookingOutDto::getId).isEqualTo(booking.getId());
     }
 
     @Test
@@ -309,10 +344,23 @@ class BookingRepositoryTest {
                 .status(Status.APPROVED)
                 .build();
         tem.persist(booking);
+        Booking olderBooking = Booking.builder()
+                .item(item).booker(booker)
+                .start(now.minusDays(6)).end(now.minusDays(4))
+                .status(Status.APPROVED)
+                .build();
+        tem.persist(olderBooking);
+        Booking rejectedBooking = Booking.builder()
+                .item(item).booker(booker)
+                .start(now.minusDays(2)).end(now.minusDays(1))
+                .status(Status.REJECTED)
+                .build();
+        tem.persist(rejectedBooking);
 
-        List<Booking> bookingRet = bookingRepository
-                .findAllByItemIdAndOrderByStartDesc(item.getId(), now);
-        Assertions.assertThat(bookingRet.get(0)).isNotNull()
+        Booking bookingRet = bookingRepository
+                .findFirstByItemIdAndStatusAndStartBeforeOrderByStartDesc(item.getId(), Status.APPROVED, now)
+                .orElse(null);
+        Assertions.assertThat(bookingRet).isNotNull()
                 .isEqualTo(booking);
     }
 
@@ -332,10 +380,23 @@ class BookingRepositoryTest {
                 .status(Status.APPROVED)
                 .build();
         tem.persist(booking);
+        Booking laterBooking = Booking.builder()
+                .item(item).booker(booker)
+                .start(now.plusDays(6)).end(now.plusDays(8))
+                .status(Status.APPROVED)
+                .build();
+        tem.persist(laterBooking);
+        Booking waitingBooking = Booking.builder()
+                .item(item).booker(booker)
+                .start(now.plusDays(1)).end(now.plusDays(2))
+                .status(Status.WAITING)
+                .build();
+        tem.persist(waitingBooking);
 
-        List<Booking> bookingRet = bookingRepository
-                .findAllByItemIdOrderByStartAsc(item.getId(), now);
-        Assertions.assertThat(bookingRet.get(0)).isNotNull()
+        Booking bookingRet = bookingRepository
+                .findFirstByItemIdAndStatusAndStartAfterOrderByStartAsc(item.getId(), Status.APPROVED, now)
+                .orElse(null);
+        Assertions.assertThat(bookingRet).isNotNull()
                 .isEqualTo(booking);
     }
 
@@ -361,4 +422,79 @@ class BookingRepositoryTest {
         Assertions.assertThat(bookingRet.get(0)).isNotNull()
                 .isEqualTo(booking);
     }
+
+    @Test
+    void findAllByRoleAndStateLoadsPageInOneStatementTest() {
+        User owner = User.builder().name("owner").email("owner@example.com").build();
+        tem.persist(owner);
+        User booker = User.builder().name("booker").email("booker@example.com").build();
+        tem.persist(booker);
+        for (int i = 0; i < 5; i++) {
+            Item item = Item.builder()
+                    .name("молоток " + i).description("крепкий молоток").available(true)
+                    .owner(owner).build();
+            tem.persist(item);
+            tem.persist(Booking.builder()
+                    .item(item).booker(booker)
+                    .start(now.plusDays(3)).end(now.plusDays(5))
+                    .status(Status.WAITING)
+                    .build());
+        }
+        tem.flush();
+        tem.clear();
+        Statistics statistics = tem.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<BookingOutDto> bookingRet = bookingRepository
+                .findAllByRoleAndState(BookingRole.OWNER, owner.getId(), "ALL", now, null, 0, 10);
+
+        Assertions.assertThat(bookingRet).hasSize(5).allSatisfy(booking -> {
+            Assertions.assertThat(booking.getItem().getName()).startsWith("молоток");
+            Assertions.assertThat(booking.getBooker()).isEqualTo(new BookingOutDto.Booker(booker.getId(), "booker"));
+        });
+        Assertions.assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void findAllByRoleAndStateReusesQueryPlanTest() {
+        Statistics statistics = tem.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        bookingRepository.findAllByRoleAndState(BookingRole.BOOKER, 1L, "PAST", now, null, 0, 10);
+        long misses = statistics.getQueryPlanCacheMissCount();
+
+        bookingRepository.findAllByRoleAndState(BookingRole.BOOKER, 2L, "PAST", now.minusDays(1), null, 20, 5);
+
+        Assertions.assertThat(statistics.getQueryPlanCacheMissCount()).isEqualTo(misses);
+    }
+
+    @Test
+    void findAllByRoleAndStateAfterCursorTest() {
+        LocalDateTime start = now.plusDays(3).withNano(0);
+        User owner = User.builder().name("owner").email("owner@example.com").build();
+        tem.persist(owner);
+        Item item = Item.builder()
+                .name("молоток").description("крепкий молоток").available(true)
+                .owner(owner).build();
+        tem.persist(item);
+        User booker = User.builder().name("booker").email("booker@example.com").build();
+        tem.persist(booker);
+        Booking first = Booking.builder()
+                .item(item).booker(booker)
+                .start(start).end(start.plusDays(2))
+                .status(Status.WAITING)
+                .build();
+        tem.persist(first);
+        Booking second = Booking.builder()
+                .item(item).booker(booker)
+                .start(start).end(start.plusDays(2))
+                .status(Status.WAITING)
+                .build();
+        tem.persist(second);
+
+        List<BookingOutDto> bookingRet = bookingRepository.findAllByRoleAndState(BookingRole.BOOKER, booker.getId(),
+                "WAITING", now, new BookingCursor(start, second.getId()), 0, 10);
+
+        Assertions.assertThat(bookingRet).extracting(BookingOutDto::getId).containsExactly(first.getId());
+    }
 }
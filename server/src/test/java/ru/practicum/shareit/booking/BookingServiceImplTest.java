@@ -9,10 +9,12 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingOutDto;
+import ru.practicum.shareit.booking.dto.BookingPage;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingRole;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.booking.service.BookingServiceImpl;
@@ -20,15 +22,21 @@ import ru.practicum.shareit.exception.AccessException;
 import ru.practicum.shareit.exception.FoundException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.dto.UserProfile;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserCache;
 
+import java.security.InvalidParameterException;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.when;
 import static ru.practicum.shareit.Constants.DATE_TIME_FORMATTER;
@@ -42,13 +50,14 @@ class BookingServiceImplTest {
     private ItemRepository itemRepository;
 
     @Mock
-    private UserRepository userRepository;
+    private UserCache userCache;
 
     @InjectMocks
     private BookingServiceImpl bookingService;
 
     private User user;
     private User user2;
+    private UserProfile profile;
     private Item item;
     private BookingDto bookingNewDto;
     private Booking booking;
@@ -62,6 +71,8 @@ class BookingServiceImplTest {
                 .id(1L).name("user").email("user@example.com")
                 .build();
 
+        profile = new UserProfile(user.getId(), user.getName(), user.getEmail());
+
         user2 = User.builder()
                 .id(2L).name("user2").email("user2@example.com")
                 .build();
@@ -70,7 +81,7 @@ class BookingServiceImplTest {
                 .id(1L)
                 .name("молоток")
                 .description("стальной молоток")
-                .owner(new User(1L, "owner", "owner@example.com"))
+                .owner(User.builder().id(1L).name("owner").email("owner@example.com").build())
                 .available(true)
                 .build();
 
@@ -99,8 +110,8 @@ class BookingServiceImplTest {
 
     @Test
     void createBookingWrongUserIdTest() {
-        when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.empty());
+        when(userCache.getReference(anyLong()))
+                .thenThrow(new FoundException("Пользователь не найден"));
 
         Throwable throwable = Assertions.catchException(() -> bookingService.createBooking(99L, bookingNewDto));
 
@@ -108,16 +119,17 @@ class BookingServiceImplTest {
                 .isInstanceOf(FoundException.class)
                 .hasMessage("Пользователь не найден");
 
-        Mockito.verify(userRepository, times(1)).findById(anyLong());
-        Mockito.verifyNoMoreInteractions(userRepository);
+        Mockito.verify(userCache, times(1)).getReference(anyLong());
+        Mockito.verifyNoMoreInteractions(userCache);
+        Mockito.verifyNoInteractions(itemRepository);
     }
 
     @Test
     void createBookingWrongItemIdTest() {
         bookingNewDto.setItemId(99L);
 
-        when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(user));
+        when(userCache.getReference(anyLong()))
+                .thenReturn(user);
         when(itemRepository.findById(anyLong()))
                 .thenReturn(Optional.empty());
 
@@ -127,18 +139,18 @@ class BookingServiceImplTest {
                 .isInstanceOf(FoundException.class)
                 .hasMessage("Вещь не найдена");
 
-        Mockito.verify(userRepository, times(1)).findById(anyLong());
+        Mockito.verify(userCache, times(1)).getReference(anyLong());
         Mockito.verify(itemRepository, times(1))
                 .findById(anyLong());
-        Mockito.verifyNoMoreInteractions(userRepository, itemRepository);
+        Mockito.verifyNoMoreInteractions(userCache, itemRepository);
     }
 
     @Test
     void createBookingItemAvailableFalseTest() {
         item.setAvailable(false);
 
-        when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(user));
+        when(userCache.getReference(anyLong()))
+                .thenReturn(user);
         when(itemRepository.findById(anyLong()))
                 .thenReturn(Optional.of(item));
 
@@ -151,14 +163,16 @@ class BookingServiceImplTest {
 
     @Test
     void createBookingNormalTest() {
-        when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(user));
+        when(userCache.getReference(anyLong()))
+                .thenReturn(user);
         when(itemRepository.findById(anyLong()))
                 .thenReturn(Optional.of(item));
         when(bookingRepository.save(any(Booking.class)))
                 .thenReturn(booking);
         when(itemRepository.findById(anyLong()))
                 .thenReturn(Optional.of(item));
+        when(userCache.saveReferencing(anyLong(), anyString(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(2).get());
 
         BookingOutDto saved = bookingService.createBooking(2L, bookingNewDto);
 
@@ -175,13 +189,10 @@ class BookingServiceImplTest {
     @Test
     void updateBookingApproveStatusNormalTest() {
         bookingDtoMastBe.setStatus(Status.APPROVED);
-        when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(user));
-        when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
-        when(bookingRepository.save(any(Booking.class)))
-                .thenReturn(booking);
-        when(itemRepository.findById(anyLong()))
-                .thenReturn(Optional.of(item));
+        when(bookingRepository.findWithItemAndBookerById(anyLong()))
+                .thenReturn(Optional.of(booking));
+        when(bookingRepository.updateStatusIfWaiting(1L, Status.APPROVED))
+                .thenReturn(1);
         BookingOutDto updated = bookingService.updateBookingApproveStatus(1L, 1L, true);
         Assertions.assertThat(updated).isNotNull();
         Assertions.assertThat(updated.getId()).isEqualTo(1L);
@@ -191,17 +202,17 @@ class BookingServiceImplTest {
         Assertions.assertThat(updated)
                 .usingRecursiveComparison()
                 .isEqualTo(bookingDtoMastBe);
+        Assertions.assertThat(booking.getStatus()).isEqualTo(Status.WAITING);
+        Mockito.verifyNoInteractions(userCache, itemRepository);
     }
 
     @Test
     void updateBookingWrongStatusTest() {
         booking.setStatus(Status.APPROVED);
-        when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(user));
-        when(bookingRepository.findById(anyLong()))
+        when(bookingRepository.findWithItemAndBookerById(anyLong()))
                 .thenReturn(Optional.of(booking));
-        when(itemRepository.findById(anyLong()))
-                .thenReturn(Optional.of(item));
+        when(bookingRepository.updateStatusIfWaiting(1L, Status.APPROVED))
+                .thenReturn(0);
 
         Throwable throwable = Assertions.catchException(() -> bookingService
                 .updateBookingApproveStatus(1L, 1L, true));
@@ -213,12 +224,8 @@ class BookingServiceImplTest {
 
     @Test
     void approveNotOwnerTest() {
-        when(bookingRepository.findById(anyLong()))
+        when(bookingRepository.findWithItemAndBookerById(anyLong()))
                 .thenReturn(Optional.of(booking));
-        when(itemRepository.findById(anyLong()))
-                .thenReturn(Optional.of(item));
-        when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(user2));
 
         Throwable throwable = Assertions.catchException(() -> bookingService
                 .updateBookingApproveStatus(2L, 1L, true));
@@ -226,18 +233,15 @@ class BookingServiceImplTest {
         Assertions.assertThat(throwable)
                 .isInstanceOf(FoundException.class)
                 .hasMessage("Доступ запрещен");
+        Mockito.verify(bookingRepository, Mockito.never()).updateStatusIfWaiting(anyLong(), any(Status.class));
     }
 
     @Test
     void approveRejectStatusTest() {
-        when(bookingRepository.findById(anyLong()))
+        when(bookingRepository.findWithItemAndBookerById(anyLong()))
                 .thenReturn(Optional.of(booking));
-        when(itemRepository.findById(anyLong()))
-                .thenReturn(Optional.of(item));
-        when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(user));
-        when(bookingRepository.save(any(Booking.class)))
-                .thenReturn(booking);
+        when(bookingRepository.updateStatusIfWaiting(1L, Status.REJECTED))
+                .thenReturn(1);
 
         BookingOutDto result = bookingService.updateBookingApproveStatus(1L, 1L, false);
 
@@ -247,9 +251,6 @@ class BookingServiceImplTest {
 
     @Test
     void findBookingByWrongIdTest() {
-        when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(user));
-
         Throwable throwable = Assertions.catchException(() -> bookingService.findBookingById(99L, 100L));
 
         Assertions.assertThat(throwable)
@@ -258,12 +259,20 @@ class BookingServiceImplTest {
     }
 
     @Test
-    void findBookingByIdNormalTest() {
-        when(bookingRepository.findByIdAndBookerOrOwner(anyLong(), anyLong()))
+    void findBookingByStrangerTest() {
+        when(bookingRepository.findWithItemAndBookerById(anyLong()))
                 .thenReturn(Optional.of(booking));
-        when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(user));
-        when(bookingRepository.findById(anyLong()))
+
+        Throwable throwable = Assertions.catchException(() -> bookingService.findBookingById(99L, 1L));
+
+        Assertions.assertThat(throwable)
+                .isInstanceOf(FoundException.class)
+                .hasMessage("Бронирование не найдено");
+    }
+
+    @Test
+    void findBookingByIdNormalTest() {
+        when(bookingRepository.findWithItemAndBookerById(anyLong()))
                 .thenReturn(Optional.of(booking));
 
         BookingOutDto result = bookingService.findBookingById(1L, 1L);
@@ -275,24 +284,12 @@ class BookingServiceImplTest {
 
     @Test
     void getAllBookingsByUserNormalTest() {
-        when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(user));
-
-        when(bookingRepository.findAllByBookerIdOrderByStartDesc(any(PageRequest.class), anyLong()))
-                .thenReturn(List.of(booking));
-        when(bookingRepository.findAllByBookerIdByDateIntoPeriodOrderByStartDesc(any(PageRequest.class), anyLong(),
-                any(LocalDateTime.class)))
-                .thenReturn(List.of(booking));
-        when(bookingRepository.findAllByBookerIdAndEndIsBeforeOrderByStartDesc(any(PageRequest.class), anyLong(),
-                any(LocalDateTime.class)))
-                .thenReturn(List.of(booking));
-        when(bookingRepository.findAllByBookerIdAndStartIsAfterOrderByStartDesc(any(PageRequest.class), anyLong(),
-                any(LocalDateTime.class)))
-                .thenReturn(List.of(booking));
-        when(bookingRepository.findAllByBookerIdAndStatusRejectedOrderByStartDesc(any(PageRequest.class), anyLong()))
-                .thenReturn(List.of(booking));
-        when(bookingRepository.findAllByBookerIdAndStatusWaitingOrderByStartDesc(any(PageRequest.class), anyLong()))
-                .thenReturn(List.of(booking));
+        when(userCache.get(anyLong()))
+                .thenReturn(profile);
+
+        when(bookingRepository.findAllByRoleAndState(eq(BookingRole.BOOKER), anyLong(), anyString(),
+                any(LocalDateTime.class), isNull(), eq(0), eq(20)))
+                .thenReturn(List.of(bookingDtoMastBe));
 
         List<BookingOutDto> listAll = bookingService.findAllBookingByUserAndState(1L, "ALL", 0, 20);
         Assertions.assertThat(listAll).hasSize(1);
@@ -315,24 +312,12 @@ class BookingServiceImplTest {
 
     @Test
     void findAllBookingByOwnerAndStateNormalTest() {
-        when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(user));
-
-        when(bookingRepository.findAllByItemOwnerOrderByStartDesc(any(PageRequest.class), anyLong()))
-                .thenReturn(List.of(booking));
-        when(bookingRepository.findAllByItemOwnerByDateIntoPeriodOrderByStartDesc(any(PageRequest.class), anyLong(),
-                any(LocalDateTime.class)))
-                .thenReturn(List.of(booking));
-        when(bookingRepository.findAllByItemOwnerAndEndIsBeforeOrderByStartDesc(any(PageRequest.class), anyLong(),
-                any(LocalDateTime.class)))
-                .thenReturn(List.of(booking));
-        when(bookingRepository.findAllByItemOwnerAndStartIsAfterOrderByStartDesc(any(PageRequest.class), anyLong(),
-                any(LocalDateTime.class)))
-                .thenReturn(List.of(booking));
-        when(bookingRepository.findAllByItemOwnerAndStateRejectedOrderByStartDesc(any(PageRequest.class), anyLong()))
-                .thenReturn(List.of(booking));
-        when(bookingRepository.findAllByItemOwnerAndStateWaitingOrderByStartDesc(any(PageRequest.class), anyLong()))
-                .thenReturn(List.of(booking));
+        when(userCache.get(anyLong()))
+                .thenReturn(profile);
+
+        when(bookingRepository.findAllByRoleAndState(eq(BookingRole.OWNER), anyLong(), anyString(),
+                any(LocalDateTime.class), isNull(), eq(0), eq(20)))
+                .thenReturn(List.of(bookingDtoMastBe));
 
         List<BookingOutDto> listAll = bookingService.findAllBookingByOwnerAndState(1L, "ALL", 0, 20);
         Assertions.assertThat(listAll).hasSize(1);
@@ -355,8 +340,8 @@ class BookingServiceImplTest {
 
     @Test
     void createBookerIsEqualOwnerTest() {
-        when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(user));
+        when(userCache.getReference(anyLong()))
+                .thenReturn(user);
         when(itemRepository.findById(anyLong()))
                 .thenReturn(Optional.of(item));
         Throwable throwable = Assertions.catchException(() -> bookingService.createBooking(1L, bookingNewDto));
@@ -365,4 +350,51 @@ class BookingServiceImplTest {
                 .isInstanceOf(FoundException.class)
                 .hasMessage("Нельзя бронировать свою вещь");
     }
+
+    @Test
+    void findBookingPageByUserNextCursorTest() {
+        BookingOutDto booking2 = new BookingOutDto(2L, booking.getStart(), booking.getEnd(), Status.WAITING,
+                item.getId(), item.getName(), user.getId(), user.getName());
+        when(userCache.get(anyLong()))
+                .thenReturn(profile);
+        when(bookingRepository.findAllByRoleAndState(eq(BookingRole.BOOKER), anyLong(), eq("ALL"),
+                any(LocalDateTime.class), isNull(), eq(0), eq(2)))
+                .thenReturn(List.of(bookingDtoMastBe, booking2));
+
+        BookingPage page = bookingService.findBookingPageByUserAndState(1L, "ALL", "", 1);
+
+        Assertions.assertThat(page.getBookings()).hasSize(1)
+                .usingRecursiveFieldByFieldElementComparator()
+                .containsExactly(bookingDtoMastBe);
+        Assertions.assertThat(BookingCursor.decode(page.getNextCursor()))
+                .isEqualTo(new BookingCursor(booking.getStart(), booking.getId()));
+    }
+
+    @Test
+    void findBookingPageByOwnerLastPageTest() {
+        BookingCursor cursor = new BookingCursor(now, 5L);
+        when(userCache.get(anyLong()))
+                .thenReturn(profile);
+        when(bookingRepository.findAllByRoleAndState(eq(BookingRole.OWNER), anyLong(), eq("WAITING"),
+                any(LocalDateTime.class), eq(cursor), eq(0), eq(21)))
+                .thenReturn(List.of(bookingDtoMastBe));
+
+        BookingPage page = bookingService.findBookingPageByOwnerAndState(1L, "WAITING", cursor.encode(), 20);
+
+        Assertions.assertThat(page.getBookings()).hasSize(1);
+        Assertions.assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void findBookingPageWrongCursorTest() {
+        when(userCache.get(anyLong()))
+                .thenReturn(profile);
+
+        Throwable thrown = Assertions.catchException(() -> bookingService
+                .findBookingPageByUserAndState(1L, "ALL", "не курсор", 20));
+
+        Assertions.assertThat(thrown)
+                .isInstanceOf(InvalidParameterException.class);
+        Mockito.verifyNoInteractions(bookingRepository);
+    }
 }
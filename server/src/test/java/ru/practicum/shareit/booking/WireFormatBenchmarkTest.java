@@ -0,0 +1,88 @@
+package ru.practicum.shareit.booking;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.practicum.shareit.booking.dto.BookingOutDto;
+import ru.practicum.shareit.booking.model.Status;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+// запуск: mvn test -pl server -Dtest=WireFormatBenchmarkTest -Dbenchmark=true
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class WireFormatBenchmarkTest {
+    private static final List<Integer> PAGE_SIZES = List.of(20, 100);
+    private static final int WARMUP_ITERATIONS = 20_000;
+    private static final int ITERATIONS = 50_000;
+
+    private final ObjectMapper jsonMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final ObjectMapper smileMapper = Jackson2ObjectMapperBuilder.smile().build();
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    @Test
+    void compareSerializationCostTest() throws Exception {
+        for (int pageSize : PAGE_SIZES) {
+            List<BookingOutDto> page = createPage(pageSize);
+            byte[] json = jsonMapper.writeValueAsBytes(page);
+            byte[] smile = smileMapper.writeValueAsBytes(page);
+            // шлюз должен отдать клиенту тот же JSON, что сервер отдал бы сам
+            Assertions.assertThat(jsonMapper.readTree(transcode(smile))).isEqualTo(jsonMapper.readTree(json));
+
+            double jsonNanos = measure(() -> jsonMapper.writeValueAsBytes(page));
+            double smileNanos = measure(() -> smileMapper.writeValueAsBytes(page));
+            double transcodeNanos = measure(() -> transcode(smile));
+
+            System.out.printf("Страница из %d бронирований: JSON %d байт, %.1f мкс; Smile %d байт, %.1f мкс; "
+                            + "Smile -> JSON на шлюзе %.1f мкс%n",
+                    pageSize, json.length, jsonNanos / 1000, smile.length, smileNanos / 1000, transcodeNanos / 1000);
+            Assertions.assertThat(smile.length).isLessThan(json.length);
+        }
+    }
+
+    private static double measure(Callable<byte[]> serializer) throws Exception {
+        long bytes = 0;
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            bytes += serializer.call().length;
+        }
+        long startNanos = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            bytes += serializer.call().length;
+        }
+        double nanosPerPage = (double) (System.nanoTime() - startNanos) / ITERATIONS;
+        // результат используется, чтобы JIT не выбросил сериализацию
+        Assertions.assertThat(bytes).isPositive();
+        return nanosPerPage;
+    }
+
+    // то же перекодирование по токенам, что делает шлюз
+    private byte[] transcode(byte[] smile) throws IOException {
+        ByteArrayOutputStream json = new ByteArrayOutputStream();
+        try (JsonParser parser = smileMapper.getFactory().createParser(smile);
+             JsonGenerator generator = jsonFactory.createGenerator(json)) {
+            while (parser.nextToken() != null) {
+                generator.copyCurrentEvent(parser);
+            }
+        }
+        return json.toByteArray();
+    }
+
+    private static List<BookingOutDto> createPage(int pageSize) {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 10, 0);
+        List<BookingOutDto> page = new ArrayList<>();
+        for (long i = 1; i <= pageSize; i++) {
+            page.add(new BookingOutDto(i, start.plusDays(i), start.plusDays(i + 1), Status.APPROVED,
+                    i, "вещь номер " + i, 1000 + i, "пользователь " + i));
+        }
+        return page;
+    }
+}
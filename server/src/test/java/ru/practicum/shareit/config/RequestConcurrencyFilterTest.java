@@ -0,0 +1,45 @@
+package ru.practicum.shareit.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+class RequestConcurrencyFilterTest {
+
+    private final RequestConcurrencyFilter filter =
+            new RequestConcurrencyFilter(1, Duration.ofMillis(10), new ObjectMapper());
+
+    @Test
+    void requestOverLimitIsRejectedTest() throws Exception {
+        MockHttpServletResponse outerResponse = new MockHttpServletResponse();
+        MockHttpServletResponse innerResponse = new MockHttpServletResponse();
+
+        // второй запрос приходит, пока первый еще держит единственное разрешение
+        filter.doFilter(new MockHttpServletRequest("GET", "/users"), outerResponse,
+                (request, response) -> filter.doFilter(new MockHttpServletRequest("GET", "/items"), innerResponse,
+                        (innerRequest, innerResp) -> Assertions.fail("Запрос сверх лимита не должен обрабатываться")));
+
+        Assertions.assertThat(outerResponse.getStatus()).isEqualTo(200);
+        Assertions.assertThat(innerResponse.getStatus()).isEqualTo(503);
+        Assertions.assertThat(innerResponse.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        Assertions.assertThat(innerResponse.getContentAsString())
+                .contains("Сервер перегружен, повторите запрос позже");
+        Assertions.assertThat(filter.availablePermits()).isEqualTo(1);
+    }
+
+    @Test
+    void permitIsReleasedAfterFailedRequestTest() {
+        Assertions.assertThatThrownBy(() -> filter.doFilter(new MockHttpServletRequest("GET", "/users"),
+                        new MockHttpServletResponse(), (request, response) -> {
+                            throw new IllegalStateException("ошибка");
+                        }))
+                .isInstanceOf(IllegalStateException.class);
+
+        Assertions.assertThat(filter.availablePermits()).isEqualTo(1);
+    }
+}
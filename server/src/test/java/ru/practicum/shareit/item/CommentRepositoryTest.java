@@ -0,0 +1,85 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemCommentDto;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@DataJpaTest
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class CommentRepositoryTest {
+
+    private final TestEntityManager tem;
+    private final CommentRepository commentRepository;
+
+    private final LocalDateTime now = LocalDateTime.now().withNano(0);
+
+    @Test
+    void findAllCommentDtoByItemIdTest() {
+        User owner = User.builder().name("owner").email("owner@example.com").build();
+        tem.persist(owner);
+        User author1 = User.builder().name("author1").email("author1@example.com").build();
+        tem.persist(author1);
+        User author2 = User.builder().name("author2").email("author2@example.com").build();
+        tem.persist(author2);
+        Item item = Item.builder().name("молоток").description("крепкий молоток")
+                .owner(owner).available(true).build();
+        tem.persist(item);
+        Item item2 = Item.builder().name("дрель").description("мощная дрель")
+                .owner(owner).available(true).build();
+        tem.persist(item2);
+        Comment comment1 = tem.persist(new Comment(null, "первый", item.getId(), author1.getId(), now));
+        Comment comment2 = tem.persist(new Comment(null, "второй", item.getId(), author2.getId(), now));
+        tem.persist(new Comment(null, "третий", item2.getId(), author1.getId(), now));
+
+        List<CommentDto> result = commentRepository.findAllCommentDtoByItemId(item.getId());
+
+        Assertions.assertThat(result)
+                .usingRecursiveComparison()
+                .ignoringCollectionOrder()
+                .isEqualTo(List.of(
+                        new CommentDto(comment1.getId(), "первый", "author1", now),
+                        new CommentDto(comment2.getId(), "второй", "author2", now)));
+    }
+
+    @Test
+    void findAllCommentDtoByItemIdInTest() {
+        User owner = User.builder().name("owner").email("owner@example.com").build();
+        tem.persist(owner);
+        User author = User.builder().name("author").email("author@example.com").build();
+        tem.persist(author);
+        Item item = Item.builder().name("молоток").description("крепкий молоток")
+                .owner(owner).available(true).build();
+        tem.persist(item);
+        Item item2 = Item.builder().name("дрель").description("мощная дрель")
+                .owner(owner).available(true).build();
+        tem.persist(item2);
+        Item item3 = Item.builder().name("стол").description("деревянный")
+                .owner(owner).available(true).build();
+        tem.persist(item3);
+        tem.persist(new Comment(null, "первый", item.getId(), author.getId(), now));
+        tem.persist(new Comment(null, "второй", item2.getId(), author.getId(), now));
+        tem.persist(new Comment(null, "третий", item3.getId(), author.getId(), now));
+
+        List<ItemCommentDto> result = commentRepository
+                .findAllCommentDtoByItemIdIn(List.of(item.getId(), item2.getId()));
+
+        Assertions.assertThat(result).hasSize(2)
+                .extracting(ItemCommentDto::getItemId)
+                .containsExactlyInAnyOrder(item.getId(), item2.getId());
+        Assertions.assertThat(result)
+                .extracting(ItemCommentDto::getAuthorName)
+                .containsOnly("author");
+    }
+}
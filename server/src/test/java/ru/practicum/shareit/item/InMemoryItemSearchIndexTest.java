@@ -0,0 +1,150 @@
+package ru.practicum.shareit.item;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.dto.ItemSearchCursor;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.InMemoryItemSearchIndex;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class InMemoryItemSearchIndexTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @InjectMocks
+    private InMemoryItemSearchIndex searchIndex;
+
+    private Item hammer;
+    private Item table;
+    private Item saw;
+
+    @BeforeEach
+    void setUp() {
+        hammer = Item.builder().id(1L).name("молоток").description("крепкий инструмент").available(true).build();
+        table = Item.builder().id(2L).name("стол").description("деревянный").available(true).build();
+        saw = Item.builder().id(3L).name("бензопила").description("немецкий Инструмент").available(true).build();
+    }
+
+    @Test
+    void searchIgnoresCaseAndMatchesSubstringTest() {
+        when(itemRepository.findAll()).thenReturn(List.of(hammer, table, saw));
+        searchIndex.rebuild();
+
+        Assertions.assertThat(searchIndex.search("ИНСТРУмент", 0, 10)).containsExactly(1L, 3L);
+        Assertions.assertThat(searchIndex.search("тол", 0, 10)).containsExactly(2L);
+        Assertions.assertThat(searchIndex.search("о", 0, 10)).containsExactly(1L, 2L, 3L);
+        Assertions.assertThat(searchIndex.search("напильник", 0, 10)).isEmpty();
+        Assertions.assertThat(searchIndex.search("", 0, 10)).isEmpty();
+    }
+
+    @Test
+    void searchRanksNameMatchesFirstAndPagesTest() {
+        Item drill = Item.builder().id(4L).name("дрель").description("ударная").available(true).build();
+        Item screwdriver = Item.builder().id(5L).name("шуруповерт").description("почти дрель").available(true).build();
+        Item bigDrill = Item.builder().id(6L).name("большая дрель").description("").available(true).build();
+        searchIndex.index(screwdriver);
+        searchIndex.index(drill);
+        searchIndex.index(bigDrill);
+
+        Assertions.assertThat(searchIndex.search("дрель", 0, 10)).containsExactly(4L, 6L, 5L);
+        Assertions.assertThat(searchIndex.search("дрель", 1, 1)).containsExactly(6L);
+        Assertions.assertThat(searchIndex.search("дрель", 3, 10)).isEmpty();
+        Assertions.assertThat(searchIndex.searchAfter("дрель", null, 10)).containsExactly(
+                new ItemSearchCursor(true, 4L), new ItemSearchCursor(true, 6L), new ItemSearchCursor(false, 5L));
+        Assertions.assertThat(searchIndex.searchAfter("дрель", new ItemSearchCursor(true, 4L), 10))
+                .containsExactly(new ItemSearchCursor(true, 6L), new ItemSearchCursor(false, 5L));
+        Assertions.assertThat(searchIndex.searchAfter("дрель", new ItemSearchCursor(true, 6L), 10))
+                .containsExactly(new ItemSearchCursor(false, 5L));
+        Assertions.assertThat(searchIndex.searchAfter("дрель", new ItemSearchCursor(false, 5L), 10)).isEmpty();
+    }
+
+    @Test
+    void indexUpdatesTextAndAvailabilityTest() {
+        searchIndex.index(hammer);
+        searchIndex.index(table);
+
+        hammer.setName("кувалда");
+        searchIndex.index(hammer);
+        table.setAvailable(false);
+        searchIndex.index(table);
+
+        Assertions.assertThat(searchIndex.search("молоток", 0, 10)).isEmpty();
+        Assertions.assertThat(searchIndex.search("кувалда", 0, 10)).containsExactly(1L);
+        Assertions.assertThat(searchIndex.search("стол", 0, 10)).isEmpty();
+    }
+
+    @Test
+    void searchPagesThroughAllMatchesInOrderTest() {
+        List<Long> expected = new ArrayList<>();
+        List<Long> descriptionMatches = new ArrayList<>();
+        for (long id = 1; id <= 50; id++) {
+            // каждая третья вещь совпадает по названию, остальные только по описанию
+            boolean nameMatch = id % 3 == 0;
+            searchIndex.index(Item.builder().id(id)
+                    .name(nameMatch ? "пила " + id : "вещь " + id)
+                    .description("пила по дереву").available(true).build());
+            (nameMatch ? expected : descriptionMatches).add(id);
+        }
+        expected.addAll(descriptionMatches);
+
+        List<Long> byCursor = new ArrayList<>();
+        ItemSearchCursor cursor = null;
+        List<ItemSearchCursor> page;
+        do {
+            page = searchIndex.searchAfter("пила", cursor, 7);
+            page.forEach(hit -> byCursor.add(hit.getId()));
+            if (!page.isEmpty()) {
+                cursor = page.get(page.size() - 1);
+            }
+        } while (page.size() == 7);
+
+        Assertions.assertThat(byCursor).isEqualTo(expected);
+        Assertions.assertThat(searchIndex.search("пила", 14, 7)).isEqualTo(expected.subList(14, 21));
+        Assertions.assertThat(searchIndex.search("пи", 0, Integer.MAX_VALUE)).isEqualTo(expected);
+        Assertions.assertThat(searchIndex.searchAll("пила")).isEqualTo(expected);
+    }
+
+    @Test
+    void searchRunsConcurrentlyWithIndexingTest() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            futures.add(executor.submit(() -> {
+                for (long id = 1; id <= 2000; id++) {
+                    searchIndex.index(Item.builder().id(id).name("молоток " + id)
+                            .description("инструмент").available(id % 2 == 0).build());
+                }
+            }));
+            for (int i = 0; i < 3; i++) {
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < 500; j++) {
+                        Assertions.assertThat(searchIndex.search("молот", 0, 20)).hasSizeLessThanOrEqualTo(20);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Assertions.assertThat(searchIndex.search("инструмент", 0, 2000)).hasSize(1000);
+    }
+}
@@ -3,17 +3,21 @@ package ru.practicum.shareit.item;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.Constants;
 import ru.practicum.shareit.exception.FoundException;
 import ru.practicum.shareit.item.controller.ItemController;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentInDto;
 import ru.practicum.shareit.item.dto.ItemBookingDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSearchPage;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ItemService;
@@ -22,6 +26,8 @@ import ru.practicum.shareit.user.model.User;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
@@ -152,7 +158,7 @@ class ItemControllerTest {
     @Test
     void searchTest() throws Exception {
         List<ItemDto> items = List.of(addedItem, addedItem2);
-        when(itemService.findItemsByQueryText("name"))
+        when(itemService.findItemsByQueryText("name", 0, 20))
                 .thenReturn(items);
 
         mockMvc.perform(get("/items/search")
@@ -169,7 +175,7 @@ class ItemControllerTest {
     @Test
     void searchEmptyTest() throws Exception {
 
-        when(itemService.findItemsByQueryText("name"))
+        when(itemService.findItemsByQueryText("name", 0, 20))
                 .thenReturn(new ArrayList<>());
 
         mockMvc.perform(get("/items/search")
@@ -179,6 +185,44 @@ class ItemControllerTest {
         ).andExpect(status().isOk());
     }
 
+    @Test
+    void searchPageByCursorTest() throws Exception {
+        when(itemService.findItemPageByQueryText("name", "", 20))
+                .thenReturn(new ItemSearchPage(List.of(addedItem), "next"));
+
+        mockMvc.perform(get("/items/search")
+                        .param("text", "name")
+                        .param("cursor", "")
+                        .accept(MediaType.APPLICATION_JSON)
+                ).andExpect(status().isOk())
+                .andExpect(header().string(Constants.NEXT_CURSOR_HEADER, "next"))
+                .andExpect(jsonPath("$[0].name").value("name"));
+    }
+
+    @Test
+    void searchStreamTest() throws Exception {
+        List<Long> itemIds = LongStream.rangeClosed(1, 150).boxed().collect(Collectors.toList());
+        when(itemService.findItemIdsByQueryText("name"))
+                .thenReturn(itemIds);
+        when(itemService.findItemsByIds(itemIds.subList(0, 100)))
+                .thenReturn(List.of(addedItem));
+        when(itemService.findItemsByIds(itemIds.subList(100, 150)))
+                .thenReturn(List.of(addedItem2));
+
+        MvcResult result = mockMvc.perform(get("/items/search")
+                        .param("text", "name")
+                        .accept(MediaType.APPLICATION_NDJSON)
+                ).andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(objectMapper.writeValueAsString(addedItem) + "\n"
+                        + objectMapper.writeValueAsString(addedItem2) + "\n"));
+        Mockito.verify(itemService, Mockito.times(1)).findItemIdsByQueryText("name");
+    }
+
     @Test
     void createCommentTest() throws Exception {
 
@@ -0,0 +1,175 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import org.assertj.core.api.Assertions;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.item.dto.ItemBookingDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.exception.FoundException;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserCache;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@Transactional
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+class ItemIntegrationTest {
+
+    private final EntityManager em;
+    private final ItemService itemService;
+    private final MockMvc mockMvc;
+    private final UserCache userCache;
+
+    @Test
+    void findAllByUserIdQueryCountDoesNotDependOnItemCountTest() {
+        User smallOwner = createOwnerWithItems("small", 2);
+        User bigOwner = createOwnerWithItems("big", 20);
+        em.flush();
+
+        long smallCount = countStatements(smallOwner.getId(), 2);
+        long bigCount = countStatements(bigOwner.getId(), 20);
+
+        Assertions.assertThat(smallCount).isPositive();
+        Assertions.assertThat(bigCount).isEqualTo(smallCount);
+    }
+
+    @Test
+    void itemETagChangesWithItemAndCommentsTest() throws Exception {
+        User owner = User.builder().name("owner").email("owner@example.com").build();
+        em.persist(owner);
+        User user = User.builder().name("user").email("user@example.com").build();
+        em.persist(user);
+        Item item = Item.builder()
+                .name("молоток").description("хороший молоток").available(true)
+                .owner(owner).build();
+        em.persist(item);
+
+        String initial = itemService.getItemETag(item.getId(), user.getId());
+        Assertions.assertThat(itemService.getItemETag(item.getId(), user.getId())).isEqualTo(initial);
+        Assertions.assertThat(itemService.getItemETag(item.getId(), owner.getId())).isNull();
+
+        ItemDto update = new ItemDto();
+        update.setName("кувалда");
+        itemService.updateItem(owner.getId(), item.getId(), update);
+        String updated = itemService.getItemETag(item.getId(), user.getId());
+        Assertions.assertThat(updated).isNotEqualTo(initial);
+
+        em.persist(new Comment(null, "отличный молоток", item.getId(), user.getId(), LocalDateTime.now()));
+        Assertions.assertThat(itemService.getItemETag(item.getId(), user.getId())).isNotEqualTo(updated);
+    }
+
+    @Test
+    void itemETagChangesWhenCommentAuthorRenamedTest() throws Exception {
+        User owner = User.builder().name("owner").email("owner@example.com").build();
+        em.persist(owner);
+        User author = User.builder().name("author").email("author@example.com").build();
+        em.persist(author);
+        User viewer = User.builder().name("viewer").email("viewer@example.com").build();
+        em.persist(viewer);
+        Item item = Item.builder()
+                .name("молоток").description("хороший молоток").available(true)
+                .owner(owner).build();
+        em.persist(item);
+        em.persist(new Comment(null, "отличный молоток", item.getId(), author.getId(), LocalDateTime.now()));
+
+        String eTag = mockMvc.perform(get("/items/{itemId}", item.getId())
+                        .header("X-Sharer-User-Id", viewer.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        Assertions.assertThat(eTag).isNotNull();
+
+        mockMvc.perform(patch("/users/{userId}", author.getId())
+                        .content("{\"name\":\"renamed\"}")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/items/{itemId}", item.getId())
+                        .header("X-Sharer-User-Id", viewer.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.comments[0].authorName").value("renamed"));
+    }
+
+    @Test
+    void createItemForUserDeletedByAnotherInstanceTest() {
+        User owner = User.builder().name("owner").email("owner@example.com").build();
+        em.persist(owner);
+        em.flush();
+        userCache.get(owner.getId());
+        // удаление через другой экземпляр сервера не сбрасывает кэш этого
+        em.createQuery("delete from User u where u.id = :id").setParameter("id", owner.getId()).executeUpdate();
+        ItemDto itemDto = new ItemDto();
+        itemDto.setName("молоток");
+        itemDto.setDescription("хороший молоток");
+        itemDto.setAvailable(true);
+
+        Throwable thrown = Assertions.catchException(() -> itemService.createItem(owner.getId(), itemDto));
+
+        Assertions.assertThat(thrown)
+                .isInstanceOf(FoundException.class)
+                .hasMessage("Пользователь не найден");
+    }
+
+    private long countStatements(Long ownerId, int expectedSize) {
+        em.clear();
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<ItemBookingDto> result = itemService.findAllByUserId(ownerId);
+
+        Assertions.assertThat(result).hasSize(expectedSize);
+        Assertions.assertThat(result).allSatisfy(item -> {
+            Assertions.assertThat(item.getLastBooking()).isNotNull();
+            Assertions.assertThat(item.getNextBooking()).isNotNull();
+            Assertions.assertThat(item.getComments()).hasSize(1);
+        });
+        return statistics.getPrepareStatementCount();
+    }
+
+    private User createOwnerWithItems(String name, int itemCount) {
+        LocalDateTime now = LocalDateTime.now();
+        User owner = User.builder().name(name).email(name + "@example.com").build();
+        em.persist(owner);
+        for (int i = 0; i < itemCount; i++) {
+            User booker = User.builder().name(name + i).email(name + i + "@example.com").build();
+            em.persist(booker);
+            Item item = Item.builder()
+                    .name("вещь " + i).description("описание " + i).available(true)
+                    .owner(owner).build();
+            em.persist(item);
+            em.persist(Booking.builder()
+                    .item(item).booker(booker).status(Status.APPROVED)
+                    .start(now.minusDays(3)).end(now.minusDays(2))
+                    .build());
+            em.persist(Booking.builder()
+                    .item(item).booker(booker).status(Status.APPROVED)
+                    .start(now.plusDays(2)).end(now.plusDays(3))
+                    .build());
+            em.persist(new Comment(null, "комментарий " + i, item.getId(), booker.getId(), now.minusDays(1)));
+        }
+        return owner;
+    }
+}
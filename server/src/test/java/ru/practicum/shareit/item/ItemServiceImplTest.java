@@ -17,17 +17,22 @@ import ru.practicum.shareit.exception.FoundException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentInDto;
 import ru.practicum.shareit.item.dto.ItemBookingDto;
+import ru.practicum.shareit.item.dto.ItemCommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSearchCursor;
+import ru.practicum.shareit.item.dto.ItemSearchPage;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
 import ru.practicum.shareit.item.service.ItemServiceImpl;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.RequestRepository;
+import ru.practicum.shareit.user.dto.UserProfile;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserCache;
 
 import java.nio.file.AccessDeniedException;
 import java.security.InvalidParameterException;
@@ -35,6 +40,7 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.mockito.Mockito.*;
 
@@ -45,7 +51,7 @@ class ItemServiceImplTest {
     private ItemRepository itemRepository;
 
     @Mock
-    private UserRepository userRepository;
+    private UserCache userCache;
 
     @Mock
     private RequestRepository itemRequestRepository;
@@ -56,6 +62,9 @@ class ItemServiceImplTest {
     @Mock
     private BookingRepository bookingRepository;
 
+    @Mock
+    private ItemSearchIndex itemSearchIndex;
+
     @InjectMocks
     private ItemServiceImpl itemService;
 
@@ -116,8 +125,10 @@ class ItemServiceImplTest {
 
     @Test
     void createItemNormalTest() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(userCache.getReference(anyLong())).thenReturn(user);
         when(itemRepository.save(any(Item.class))).thenReturn(item);
+        when(userCache.saveReferencing(anyLong(), anyString(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(2).get());
 
         ItemDto added = itemService.createItem(1L, itemDto);
 
@@ -126,9 +137,11 @@ class ItemServiceImplTest {
                 .usingRecursiveComparison().isEqualTo(itemDtoForAssert);
         Assertions.assertThat(added.getRequestId()).isNull();
 
-        Mockito.verify(userRepository, Mockito.times(1)).findById(anyLong());
+        Mockito.verify(userCache, Mockito.times(1)).getReference(anyLong());
+        Mockito.verify(userCache, Mockito.times(1)).saveReferencing(anyLong(), anyString(), any());
         Mockito.verify(itemRepository, Mockito.times(1)).save(any(Item.class));
-        Mockito.verifyNoMoreInteractions(userRepository, itemRepository);
+        Mockito.verify(itemSearchIndex, Mockito.times(1)).index(item);
+        Mockito.verifyNoMoreInteractions(userCache, itemRepository, itemSearchIndex);
     }
 
     @Test
@@ -147,11 +160,13 @@ class ItemServiceImplTest {
         itemRequest.setDescription("хороший молоток");
         itemRequest.setCreated(LocalDateTime.now());
 
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(userCache.getReference(anyLong())).thenReturn(user);
         when(itemRequestRepository.findById(anyLong()))
                 .thenReturn(Optional.of(itemRequest));
         item.setRequest(itemRequest);
         when(itemRepository.save(any(Item.class))).thenReturn(item);
+        when(userCache.saveReferencing(anyLong(), anyString(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(2).get());
 
         ItemDto added = itemService.createItem(1L, itemDto);
 
@@ -161,23 +176,24 @@ class ItemServiceImplTest {
                 .usingRecursiveComparison().isEqualTo(itemDtoForAssert);
         Assertions.assertThat(added.getRequestId()).isEqualTo(itemRequest.getId());
 
-        Mockito.verify(userRepository, Mockito.times(1)).findById(anyLong());
+        Mockito.verify(userCache, Mockito.times(1)).getReference(anyLong());
+        Mockito.verify(userCache, Mockito.times(1)).saveReferencing(anyLong(), anyString(), any());
         Mockito.verify(itemRepository, Mockito.times(1)).save(any(Item.class));
         Mockito.verify(itemRequestRepository, Mockito.times(1)).findById(anyLong());
-        Mockito.verifyNoMoreInteractions(userRepository, itemRepository, itemRequestRepository);
+        Mockito.verifyNoMoreInteractions(userCache, itemRepository, itemRequestRepository);
     }
 
     @Test
     void saveItem_NotExistUser_ReturnNotFoundException() {
-        when(userRepository.findById(999L)).thenThrow(FoundException.class);
+        when(userCache.getReference(999L)).thenThrow(FoundException.class);
 
         Throwable thrown = Assertions.catchException(() -> itemService.createItem(999L, itemDto));
 
         Assertions.assertThat(thrown)
                 .isInstanceOf(FoundException.class);
 
-        Mockito.verify(userRepository, Mockito.times(1)).findById(999L);
-        Mockito.verifyNoMoreInteractions(userRepository);
+        Mockito.verify(userCache, Mockito.times(1)).getReference(999L);
+        Mockito.verifyNoMoreInteractions(userCache);
         Mockito.verifyNoInteractions(itemRepository, itemRequestRepository);
     }
 
@@ -185,7 +201,7 @@ class ItemServiceImplTest {
     void createItemWrongRequestTest() {
         itemDto.setRequestId(999L);
 
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(userCache.getReference(anyLong())).thenReturn(user);
         when(itemRequestRepository.findById(999L))
                 .thenThrow(FoundException.class);
 
@@ -194,9 +210,9 @@ class ItemServiceImplTest {
         Assertions.assertThat(thrown)
                 .isInstanceOf(FoundException.class);
 
-        Mockito.verify(userRepository, Mockito.times(1)).findById(anyLong());
+        Mockito.verify(userCache, Mockito.times(1)).getReference(anyLong());
         Mockito.verify(itemRequestRepository, Mockito.times(1)).findById(999L);
-        Mockito.verifyNoMoreInteractions(userRepository, itemRequestRepository);
+        Mockito.verifyNoMoreInteractions(userCache, itemRequestRepository);
         Mockito.verifyNoInteractions(itemRepository);
     }
 
@@ -209,7 +225,7 @@ class ItemServiceImplTest {
         ItemDto dataToUpdate = itemDto;
 
         when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userCache.get(1L)).thenReturn(profileOf(user));
         when(itemRepository.save(any(Item.class))).thenReturn(item);
 
         ItemDto updated = itemService.updateItem(1L, 1L, dataToUpdate);
@@ -220,6 +236,7 @@ class ItemServiceImplTest {
 
         Mockito.verify(itemRepository, Mockito.times(1)).findById(1L);
         Mockito.verify(itemRepository, Mockito.times(1)).save(any(Item.class));
+        Mockito.verify(itemSearchIndex, Mockito.times(1)).index(item);
         Mockito.verifyNoMoreInteractions(itemRepository);
     }
 
@@ -231,7 +248,7 @@ class ItemServiceImplTest {
         itemDto.setAvailable(false);
         ItemDto dataToUpdate = itemDto;
 
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userCache.get(1L)).thenReturn(profileOf(user));
         when(itemRepository.findById(anyLong())).thenThrow(FoundException.class);
 
         Throwable thrown = Assertions.catchException(() -> itemService.updateItem(1L, 999L, dataToUpdate));
@@ -251,14 +268,16 @@ class ItemServiceImplTest {
         itemDto.setAvailable(false);
         ItemDto dataToUpdate = itemDto;
 
+        when(userCache.get(99L)).thenThrow(FoundException.class);
+
         Throwable thrown = Assertions.catchException(() -> itemService.updateItem(99L, 1L, dataToUpdate));
 
         Assertions.assertThat(thrown)
                 .isInstanceOf(FoundException.class);
 
 
-        Mockito.verify(userRepository, Mockito.times(1)).findById(99L);
-        Mockito.verifyNoMoreInteractions(itemRepository);
+        Mockito.verify(userCache, Mockito.times(1)).get(99L);
+        Mockito.verifyNoInteractions(itemRepository);
     }
 
 
@@ -266,7 +285,7 @@ class ItemServiceImplTest {
     void findItemByIdNormalTest() {
         itemBookingForAssert.setOwner(user);
         when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
-        when(commentRepository.findAllByCommentAndItemId(1L))
+        when(commentRepository.findAllCommentDtoByItemId(1L))
                 .thenReturn(new ArrayList<>());
 
         ItemBookingDto actual = itemService.findItemBookingById(1L, 1L);
@@ -287,10 +306,10 @@ class ItemServiceImplTest {
         itemBookingForAssert.setOwner(user);
 
         when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
-        when(bookingRepository.findAllByItemIdAndOrderByStartDesc(anyLong(), any(LocalDateTime.class)))
-                .thenReturn((List.of(bookingLast)));
-        when(bookingRepository.findAllByItemIdOrderByStartAsc(anyLong(), any(LocalDateTime.class)))
-                .thenReturn(List.of(bookingNext));
+        when(bookingRepository.findFirstByItemIdAndStatusAndStartBeforeOrderByStartDesc(anyLong(), eq(Status.APPROVED), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(bookingLast));
+        when(bookingRepository.findFirstByItemIdAndStatusAndStartAfterOrderByStartAsc(anyLong(), eq(Status.APPROVED), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(bookingNext));
 
         ItemBookingDto actual = itemService.findItemBookingById(1L, 1L);
 
@@ -317,51 +336,136 @@ class ItemServiceImplTest {
     void findAllItemsByUserIdNormalTest() {
         List<Item> items = List.of(item, item2);
 
+        Booking bookingLast = new Booking(1L, LocalDateTime.now().minusDays(4).withNano(0), LocalDateTime.now().minusDays(2).withNano(0), item, user2, Status.APPROVED);
+        Booking bookingNext = new Booking(2L, LocalDateTime.now().plusDays(1).withNano(0), LocalDateTime.now().plusDays(2).withNano(0), item2, user3, Status.APPROVED);
+        ItemCommentDto comment = new ItemCommentDto(1L, 1L, "отличный молоток", "user2", LocalDateTime.now().minusDays(1).withNano(0));
+
         when(itemRepository.findAllByOwnerId(anyLong()))
                 .thenReturn(items);
-        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
-        when(itemRepository.findById(2L)).thenReturn(Optional.of(item2));
+        when(bookingRepository.findLastApprovedByItemIds(anyList(), any(LocalDateTime.class)))
+                .thenReturn(List.of(bookingLast));
+        when(bookingRepository.findNextApprovedByItemIds(anyList(), any(LocalDateTime.class)))
+                .thenReturn(List.of(bookingNext));
+        when(commentRepository.findAllCommentDtoByItemIdIn(anyList()))
+                .thenReturn(List.of(comment));
         List<ItemBookingDto> result = itemService.findAllByUserId(1L);
 
         Assertions.assertThat(result)
                 .hasSize(2);
+        Assertions.assertThat(result.get(0).getLastBooking().getId()).isEqualTo(1L);
+        Assertions.assertThat(result.get(0).getNextBooking()).isNull();
+        Assertions.assertThat(result.get(0).getComments())
+                .hasSize(1)
+                .first()
+                .extracting(CommentDto::getAuthorName).isEqualTo("user2");
+        Assertions.assertThat(result.get(1).getLastBooking()).isNull();
+        Assertions.assertThat(result.get(1).getNextBooking().getId()).isEqualTo(2L);
+        Assertions.assertThat(result.get(1).getComments()).isEmpty();
 
         Mockito.verify(itemRepository, Mockito.times(1))
                 .findAllByOwnerId(anyLong());
         Mockito.verifyNoMoreInteractions(itemRepository);
     }
 
+    @Test
+    void findAllItemsByUserIdWithoutItemsTest() {
+        when(itemRepository.findAllByOwnerId(anyLong()))
+                .thenReturn(new ArrayList<>());
+
+        List<ItemBookingDto> result = itemService.findAllByUserId(1L);
+
+        Assertions.assertThat(result).isEmpty();
+
+        Mockito.verifyNoInteractions(bookingRepository, commentRepository, userCache);
+    }
+
     @Test
     void searchItemByTextNormalTest() {
         List<Item> items = List.of(item, item2);
-        when(itemRepository.findItemByAvailableAndQueryContainWithIgnoreCase(any()))
+        when(itemSearchIndex.search("молоток", 0, 20))
+                .thenReturn(List.of(2L, 1L));
+        when(itemRepository.findAllByIdIn(List.of(2L, 1L)))
                 .thenReturn(items);
 
-        List<ItemDto> result = itemService.findItemsByQueryText("молоток");
+        List<ItemDto> result = itemService.findItemsByQueryText("молоток", 0, 20);
 
         Assertions.assertThat(result)
-                .hasSize(2);
+                .extracting(ItemDto::getId).containsExactly(2L, 1L);
 
         Mockito.verify(itemRepository, Mockito.times(1))
-                .findItemByAvailableAndQueryContainWithIgnoreCase(any());
+                .findAllByIdIn(List.of(2L, 1L));
         Mockito.verifyNoMoreInteractions(itemRepository);
     }
 
+    @Test
+    void searchItemPageNextCursorTest() {
+        when(itemSearchIndex.searchAfter("молоток", null, 2))
+                .thenReturn(List.of(new ItemSearchCursor(false, 1L), new ItemSearchCursor(false, 2L)));
+        when(itemRepository.findAllByIdIn(List.of(1L)))
+                .thenReturn(List.of(item));
+
+        ItemSearchPage page = itemService.findItemPageByQueryText("молоток", "", 1);
+
+        Assertions.assertThat(page.getItems())
+                .extracting(ItemDto::getId).containsExactly(1L);
+        Assertions.assertThat(ItemSearchCursor.decode(page.getNextCursor()))
+                .isEqualTo(new ItemSearchCursor(false, 1L));
+    }
+
+    @Test
+    void searchItemPageContinuesPastDeletedItemTest() {
+        when(itemSearchIndex.searchAfter("молоток", null, 3))
+                .thenReturn(List.of(new ItemSearchCursor(true, 1L), new ItemSearchCursor(true, 3L),
+                        new ItemSearchCursor(false, 2L)));
+        when(itemRepository.findAllByIdIn(List.of(1L, 3L)))
+                .thenReturn(List.of(item));
+
+        ItemSearchPage page = itemService.findItemPageByQueryText("молоток", "", 2);
+
+        Assertions.assertThat(page.getItems())
+                .extracting(ItemDto::getId).containsExactly(1L);
+        Assertions.assertThat(ItemSearchCursor.decode(page.getNextCursor()))
+                .isEqualTo(new ItemSearchCursor(true, 3L));
+    }
+
+    @Test
+    void findItemIdsByQueryTextTest() {
+        when(itemSearchIndex.searchAll("молоток"))
+                .thenReturn(List.of(2L, 1L));
+
+        Assertions.assertThat(itemService.findItemIdsByQueryText("молоток")).containsExactly(2L, 1L);
+        Assertions.assertThat(itemService.findItemIdsByQueryText(" ")).isEmpty();
+
+        Mockito.verify(itemSearchIndex, Mockito.times(1)).searchAll("молоток");
+        Mockito.verifyNoMoreInteractions(itemSearchIndex);
+        Mockito.verifyNoInteractions(itemRepository);
+    }
+
+    @Test
+    void searchItemPageWrongCursorTest() {
+        Throwable thrown = Assertions.catchException(() -> itemService
+                .findItemPageByQueryText("молоток", "не курсор", 20));
+
+        Assertions.assertThat(thrown)
+                .isInstanceOf(InvalidParameterException.class);
+        Mockito.verifyNoInteractions(itemSearchIndex);
+    }
+
     @Test
     void searchItemEmptyTextTest() {
-        List<ItemDto> result = itemService.findItemsByQueryText("");
+        List<ItemDto> result = itemService.findItemsByQueryText("", 0, 20);
 
         Assertions.assertThat(result)
                 .hasSize(0).isEqualTo(new ArrayList<ItemDto>());
 
-        Mockito.verifyNoInteractions(itemRepository);
+        Mockito.verifyNoInteractions(itemRepository, itemSearchIndex);
     }
 
     @Test
     void addEmptyCommentToItemTest() {
         CommentInDto commentNewDto = new CommentInDto();
         commentNewDto.setText("");
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userCache.get(1L)).thenReturn(profileOf(user));
         when((itemRepository.findById(1L))).thenReturn(Optional.of(item));
         Throwable thrown = Assertions.catchException(() -> itemService
                 .addCommentToItem(1L, 1L, commentNewDto));
@@ -399,7 +503,7 @@ class ItemServiceImplTest {
 
         when(commentRepository.save(any(Comment.class)))
                 .thenReturn(comment);
-        when(userRepository.findById(2L)).thenReturn(Optional.of(user2));
+        when(userCache.get(2L)).thenReturn(profileOf(user2));
         when((itemRepository.findById(1L))).thenReturn(Optional.of(item));
         when(bookingRepository.findAllByItemUserIdAndItemIdOrderByStartDesc(anyLong(), anyLong(), any(LocalDateTime.class))).thenReturn(bookingList);
 
@@ -415,4 +519,8 @@ class ItemServiceImplTest {
                 .save(any(Comment.class));
         Mockito.verifyNoMoreInteractions(bookingRepository, commentRepository);
     }
+
+    private static UserProfile profileOf(User user) {
+        return new UserProfile(user.getId(), user.getName(), user.getEmail());
+    }
 }
@@ -17,14 +17,17 @@ import ru.practicum.shareit.request.mapper.RequestMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.RequestRepository;
 import ru.practicum.shareit.request.service.RequestServiceImpl;
+import ru.practicum.shareit.user.dto.UserProfile;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserCache;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -34,7 +37,7 @@ class RequestServiceImplTest {
     private RequestRepository itemRequestRepository;
 
     @Mock
-    private UserRepository userRepository;
+    private UserCache userCache;
 
     @InjectMocks
     private RequestServiceImpl service;
@@ -46,6 +49,7 @@ class RequestServiceImplTest {
     private Item item;
 
     private User requestor;
+    private UserProfile requestorProfile;
     private ItemRequest savedItemRequest;
     private PageRequest pageRequest = PageRequest.of(0, 20);
 
@@ -64,14 +68,17 @@ class RequestServiceImplTest {
                 .name("user")
                 .email("user@example1")
                 .build();
+        requestorProfile = new UserProfile(requestor.getId(), requestor.getName(), requestor.getEmail());
 
         savedItemRequest = new ItemRequest(1L, "нужен молоток", requestor, created, null);
     }
 
     @Test
     void createItemRequestTest() {
-        Mockito.when(userRepository.findUserById(1L)).thenReturn(Optional.of(requestor));
+        Mockito.when(userCache.getReference(1L)).thenReturn(requestor);
         Mockito.when(itemRequestRepository.save(any(ItemRequest.class))).thenReturn(savedItemRequest);
+        Mockito.when(userCache.saveReferencing(eq(1L), eq("fk_requests_to_users"), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(2).get());
 
         RequestDto mustBe = RequestMapper.requestToDto(savedItemRequest);
 
@@ -82,16 +89,17 @@ class RequestServiceImplTest {
                 .usingRecursiveComparison()
                 .isEqualTo(mustBe);
 
-        Mockito.verify(userRepository, Mockito.times(1)).findUserById(1L);
+        Mockito.verify(userCache, Mockito.times(1)).getReference(1L);
+        Mockito.verify(userCache, Mockito.times(1)).saveReferencing(eq(1L), eq("fk_requests_to_users"), any());
         Mockito.verify(itemRequestRepository, Mockito.times(1)).save(any(ItemRequest.class));
-        Mockito.verifyNoMoreInteractions(userRepository, itemRequestRepository);
+        Mockito.verifyNoMoreInteractions(userCache, itemRequestRepository);
     }
 
     @Test
     void createItemRequestWrongUserTest() {
         String message = "Пользователь не найден";
 
-        Mockito.when(userRepository.findUserById(99L)).thenThrow(new FoundException(message));
+        Mockito.when(userCache.getReference(99L)).thenThrow(new FoundException(message));
 
         Throwable throwable = Assertions.catchException(() -> service.createItemRequest(99L, requestDto));
 
@@ -102,7 +110,7 @@ class RequestServiceImplTest {
 
     @Test
     void findAllByRequestorIdTest() {
-        Mockito.when(userRepository.findUserById(1L)).thenReturn(Optional.ofNullable(requestor));
+        Mockito.when(userCache.get(1L)).thenReturn(requestorProfile);
         Mockito.when(itemRequestRepository.findAllByRequestorId(pageRequest, 1L)).thenReturn(List.of(savedItemRequest));
 
         List<RequestDto> returned = service.findAllRequestByUserId(1L, 0, 20);
@@ -112,16 +120,16 @@ class RequestServiceImplTest {
                 .hasSize(1);
         Assertions.assertThat(returned.get(0).getDescription()).isEqualTo(requestDto.getDescription());
 
-        Mockito.verify(userRepository, Mockito.times(1)).findUserById(1L);
+        Mockito.verify(userCache, Mockito.times(1)).get(1L);
         Mockito.verify(itemRequestRepository, Mockito.times(1)).findAllByRequestorId(pageRequest, 1L);
-        Mockito.verifyNoMoreInteractions(userRepository, itemRequestRepository);
+        Mockito.verifyNoMoreInteractions(userCache, itemRequestRepository);
     }
 
     @Test
     void findAllByRequestorWrongUserTest() {
         String message = "Пользователь не найден";
 
-        Mockito.when(userRepository.findUserById(99L)).thenThrow(new FoundException(message));
+        Mockito.when(userCache.get(99L)).thenThrow(new FoundException(message));
 
         Throwable throwable = Assertions.catchException(() -> service.findAllRequestByUserId(99L, 0, 20));
 
@@ -129,13 +137,13 @@ class RequestServiceImplTest {
                 .isInstanceOf(FoundException.class)
                 .hasMessage(message);
 
-        Mockito.verify(userRepository, Mockito.times(1)).findUserById(99L);
-        Mockito.verifyNoMoreInteractions(userRepository);
+        Mockito.verify(userCache, Mockito.times(1)).get(99L);
+        Mockito.verifyNoMoreInteractions(userCache);
     }
 
     @Test
     void findItemRequestsTest() {
-        Mockito.when(userRepository.findUserById(1L)).thenReturn(Optional.of(requestor));
+        Mockito.when(userCache.get(1L)).thenReturn(requestorProfile);
         Mockito.when(itemRequestRepository.findAllByRequestorIdNotOrderByCreatedDesc(pageRequest, 1L))
                 .thenReturn(List.of(savedItemRequest));
 
@@ -148,7 +156,7 @@ class RequestServiceImplTest {
 
     @Test
     void getItemRequestTest() {
-        Mockito.when(userRepository.findUserById(1L)).thenReturn(Optional.of(requestor));
+        Mockito.when(userCache.get(1L)).thenReturn(requestorProfile);
         Mockito.when(itemRequestRepository.findById(1L))
                 .thenReturn(Optional.of(savedItemRequest));
 
@@ -160,16 +168,16 @@ class RequestServiceImplTest {
                 .isNotNull()
                 .usingRecursiveComparison().isEqualTo(mustBe);
 
-        Mockito.verify(userRepository, Mockito.times(1)).findUserById(1L);
+        Mockito.verify(userCache, Mockito.times(1)).get(1L);
         Mockito.verify(itemRequestRepository, Mockito.times(1)).findById(1L);
-        Mockito.verifyNoMoreInteractions(userRepository, itemRequestRepository);
+        Mockito.verifyNoMoreInteractions(userCache, itemRequestRepository);
     }
 
     @Test
     void getItemRequestWrongUserIdTest() {
         String message = "Пользователь не найден";
 
-        when(userRepository.findUserById(99L)).thenReturn(Optional.empty());
+        when(userCache.get(99L)).thenThrow(new FoundException(message));
 
         Throwable throwable = Assertions.catchException(() -> service.getRequestById(99L, 1L));
 
@@ -177,15 +185,15 @@ class RequestServiceImplTest {
                 .isInstanceOf(FoundException.class)
                 .hasMessage(message);
 
-        Mockito.verify(userRepository, Mockito.times(1)).findUserById(99L);
-        Mockito.verifyNoMoreInteractions(userRepository);
+        Mockito.verify(userCache, Mockito.times(1)).get(99L);
+        Mockito.verifyNoMoreInteractions(userCache);
     }
 
     @Test
     void getItemRequestWrongItemRequestIdTest() {
         String message = String.format("Запрос c id=%d не найден.", 99L);
 
-        Mockito.when(userRepository.findUserById(1L)).thenReturn(Optional.of(requestor));
+        Mockito.when(userCache.get(1L)).thenReturn(requestorProfile);
         Mockito.when(itemRequestRepository.findById(99L))
                 .thenThrow(new FoundException(message));
 
@@ -195,8 +203,8 @@ class RequestServiceImplTest {
                 .isInstanceOf(FoundException.class)
                 .hasMessage(message);
 
-        Mockito.verify(userRepository, Mockito.times(1)).findUserById(1L);
+        Mockito.verify(userCache, Mockito.times(1)).get(1L);
         Mockito.verify(itemRequestRepository, Mockito.times(1)).findById(99L);
-        Mockito.verifyNoMoreInteractions(userRepository, itemRequestRepository);
+        Mockito.verifyNoMoreInteractions(userCache, itemRequestRepository);
     }
 }
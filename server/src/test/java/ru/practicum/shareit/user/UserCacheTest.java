@@ -0,0 +1,166 @@
+package ru.practicum.shareit.user;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import ru.practicum.shareit.exception.FoundException;
+import ru.practicum.shareit.user.dto.UserProfile;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserCache;
+import ru.practicum.shareit.user.service.UserCacheProperties;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserCacheTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private UserCacheProperties properties;
+    private UserProfile profile;
+
+    @BeforeEach
+    void setUp() {
+        properties = new UserCacheProperties();
+        profile = new UserProfile(1L, "user", "user@example.com");
+    }
+
+    @Test
+    void userIsLoadedOnceTest() {
+        UserCache userCache = new UserCache(userRepository, properties);
+        when(userRepository.findProfileById(1L)).thenReturn(Optional.of(profile));
+
+        Assertions.assertThat(userCache.get(1L)).isSameAs(profile);
+        Assertions.assertThat(userCache.get(1L)).isSameAs(profile);
+
+        Mockito.verify(userRepository, Mockito.times(1)).findProfileById(1L);
+        Mockito.verifyNoMoreInteractions(userRepository);
+    }
+
+    @Test
+    void absentUserIsCachedTest() {
+        UserCache userCache = new UserCache(userRepository, properties);
+        when(userRepository.findProfileById(99L)).thenReturn(Optional.empty());
+
+        Assertions.assertThat(userCache.find(99L)).isEmpty();
+        Throwable thrown = Assertions.catchException(() -> userCache.get(99L));
+
+        Assertions.assertThat(thrown)
+                .isInstanceOf(FoundException.class)
+                .hasMessage("Пользователь не найден");
+        Mockito.verify(userRepository, Mockito.times(1)).findProfileById(99L);
+    }
+
+    @Test
+    void absentUserExpiresByNegativeTtlTest() {
+        properties.setNegativeTtl(Duration.ZERO);
+        UserCache userCache = new UserCache(userRepository, properties);
+        when(userRepository.findProfileById(1L))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(profile));
+
+        Assertions.assertThat(userCache.find(1L)).isEmpty();
+        Assertions.assertThat(userCache.find(1L)).containsSame(profile);
+        Assertions.assertThat(userCache.find(1L)).containsSame(profile);
+
+        Mockito.verify(userRepository, Mockito.times(2)).findProfileById(1L);
+    }
+
+    @Test
+    void evictReloadsUserTest() {
+        UserCache userCache = new UserCache(userRepository, properties);
+        UserProfile updated = new UserProfile(1L, "updatedName", "user@example.com");
+        when(userRepository.findProfileById(1L))
+                .thenReturn(Optional.of(profile))
+                .thenReturn(Optional.of(updated));
+
+        Assertions.assertThat(userCache.get(1L)).isSameAs(profile);
+        userCache.evict(1L);
+
+        Assertions.assertThat(userCache.get(1L)).isSameAs(updated);
+        Mockito.verify(userRepository, Mockito.times(2)).findProfileById(1L);
+    }
+
+    @Test
+    void getReferenceChecksExistenceTest() {
+        UserCache userCache = new UserCache(userRepository, properties);
+        when(userRepository.findProfileById(99L)).thenReturn(Optional.empty());
+
+        Throwable thrown = Assertions.catchException(() -> userCache.getReference(99L));
+
+        Assertions.assertThat(thrown)
+                .isInstanceOf(FoundException.class);
+        Mockito.verify(userRepository, Mockito.never()).getReferenceById(99L);
+    }
+
+    @Test
+    void userDeletedByAnotherInstanceIsNotFoundOnSaveTest() {
+        UserCache userCache = new UserCache(userRepository, properties);
+        when(userRepository.findProfileById(1L))
+                .thenReturn(Optional.of(profile))
+                .thenReturn(Optional.empty());
+        userCache.get(1L);
+
+        // пользователь удален через другой экземпляр сервера, а в кэше этого еще числится
+        Throwable thrown = Assertions.catchException(() -> userCache.saveReferencing(1L, "fk_items_to_users", () -> {
+            throw new DataIntegrityViolationException("could not execute statement",
+                    new SQLException("Referential integrity constraint violation: \"FK_ITEMS_TO_USERS: "
+                            + "PUBLIC.ITEMS FOREIGN KEY(OWNER_ID) REFERENCES PUBLIC.USERS(ID)\""));
+        }));
+
+        Assertions.assertThat(thrown)
+                .isInstanceOf(FoundException.class)
+                .hasMessage("Пользователь не найден");
+        Assertions.assertThat(userCache.find(1L)).isEmpty();
+        Assertions.assertThat(userCache.saveReferencing(1L, "fk_items_to_users", () -> "сохранено")).isEqualTo("сохранено");
+    }
+
+    @Test
+    void otherIntegrityViolationIsRethrownTest() {
+        UserCache userCache = new UserCache(userRepository, properties);
+        when(userRepository.findProfileById(1L)).thenReturn(Optional.of(profile));
+        userCache.get(1L);
+        DataIntegrityViolationException violation = new DataIntegrityViolationException("could not execute statement",
+                new SQLException("ERROR: insert or update on table \"bookings\" violates foreign key constraint "
+                        + "\"fk_bookings_to_items\""));
+
+        Throwable thrown = Assertions.catchException(() -> userCache.saveReferencing(1L, "fk_bookings_to_users", () -> {
+            throw violation;
+        }));
+
+        Assertions.assertThat(thrown).isSameAs(violation);
+        // пользователь остается в кэше
+        Assertions.assertThat(userCache.get(1L)).isSameAs(profile);
+        Mockito.verify(userRepository, Mockito.times(1)).findProfileById(1L);
+    }
+
+    @Test
+    void hitsAndMissesAreMeasuredTest() {
+        UserCache userCache = new UserCache(userRepository, properties);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        userCache.bindTo(registry);
+        when(userRepository.findProfileById(1L)).thenReturn(Optional.of(profile));
+
+        userCache.find(1L);
+        userCache.find(1L);
+        userCache.find(1L);
+
+        Assertions.assertThat(registry.get("cache.gets").tag("cache", "users").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(2);
+        Assertions.assertThat(registry.get("cache.gets").tag("cache", "users").tag("result", "miss")
+                .functionCounter().count()).isEqualTo(1);
+        Assertions.assertThat(registry.get("cache.hit.ratio").tag("cache", "users")
+                .gauge().value()).isCloseTo(2.0 / 3, Assertions.within(0.001));
+    }
+}
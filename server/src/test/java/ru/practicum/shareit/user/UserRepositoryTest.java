@@ -7,6 +7,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import ru.practicum.shareit.user.dto.UserProfile;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
@@ -28,4 +29,19 @@ class UserRepositoryTest {
         Assertions.assertThat(user2.getEmail()).isEqualTo("user@example.com");
 
     }
+
+    @Test
+    void findProfileByIdTest() {
+        User user = tem.persist(User.builder()
+                .name("user")
+                .email("profile@example.com")
+                .build());
+
+        UserProfile profile = userRepository.findProfileById(user.getId()).get();
+
+        Assertions.assertThat(profile)
+                .usingRecursiveComparison()
+                .isEqualTo(user);
+        Assertions.assertThat(userRepository.findProfileById(user.getId() + 100)).isEmpty();
+    }
 }
@@ -11,9 +11,11 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import ru.practicum.shareit.exception.AccessException;
 import ru.practicum.shareit.exception.FoundException;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserProfile;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserCache;
 import ru.practicum.shareit.user.service.UserServiceImpl;
 
 import java.util.List;
@@ -29,6 +31,9 @@ class UserServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserCache userCache;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -58,6 +63,7 @@ class UserServiceImplTest {
                 .isEqualTo(user);
 
         Mockito.verify(userRepository, Mockito.times(1)).save(any(User.class));
+        Mockito.verify(userCache, Mockito.times(1)).evict(1L);
         Mockito.verifyNoMoreInteractions(userRepository);
     }
 
@@ -73,6 +79,7 @@ class UserServiceImplTest {
 
         Mockito.verify(userRepository, Mockito.times(1)).save(any(User.class));
         Mockito.verifyNoMoreInteractions(userRepository);
+        Mockito.verifyNoInteractions(userCache);
     }
 
     @Test
@@ -89,6 +96,7 @@ class UserServiceImplTest {
 
         Mockito.verify(userRepository, Mockito.times(1)).findUserById(1L);
         Mockito.verify(userRepository, Mockito.times(1)).save(user);
+        Mockito.verify(userCache, Mockito.times(1)).evict(1L);
     }
 
     @Test
@@ -141,20 +149,20 @@ class UserServiceImplTest {
 
     @Test
     void findUserByIdTest() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userCache.find(1L)).thenReturn(Optional.of(new UserProfile(1L, "user", "user@example.com")));
 
         UserDto actual = userService.findUserById(1L);
 
         Assertions.assertThat(actual)
                 .isNotNull()
                 .usingRecursiveComparison().isEqualTo(user);
-        Mockito.verify(userRepository, Mockito.times(1)).findById(1L);
-        Mockito.verifyNoMoreInteractions(userRepository);
+        Mockito.verify(userCache, Mockito.times(1)).find(1L);
+        Mockito.verifyNoInteractions(userRepository);
     }
 
     @Test
     void findUserByIdWrongIdTest() {
-        when(userRepository.findById(999L)).thenReturn(Optional.empty());
+        when(userCache.find(999L)).thenReturn(Optional.empty());
 
         Throwable thrown = Assertions.catchException(() -> userService.findUserById(999L));
 
@@ -162,8 +170,8 @@ class UserServiceImplTest {
                 .isInstanceOf(FoundException.class)
                 .hasMessage(String.format("Такого пользователя нет в базе"));
 
-        Mockito.verify(userRepository, Mockito.times(1)).findById(999L);
-        Mockito.verifyNoMoreInteractions(userRepository);
+        Mockito.verify(userCache, Mockito.times(1)).find(999L);
+        Mockito.verifyNoInteractions(userRepository);
     }
 
     @Test
@@ -173,6 +181,7 @@ class UserServiceImplTest {
         userService.deleteUserById(anyLong());
 
         Mockito.verify(userRepository, Mockito.times(1)).deleteById(anyLong());
+        Mockito.verify(userCache, Mockito.times(1)).evict(anyLong());
         Mockito.verifyNoMoreInteractions(userRepository);
     }
 